@@ -0,0 +1,68 @@
+import { useAuthStore } from '../stores/auth.js'
+
+const RECONNECT_DELAY_MS = 2000
+
+/**
+ * S'abonne au flux SSE d'une partie (GET /games/{id}/events).
+ * EventSource ne permet pas d'envoyer le header Authorization → on lit le flux avec fetch.
+ * `onGame` reçoit l'état complet, `onRoll` le résultat compact d'un lancer (sans feuilles de score).
+ * Retourne une fonction de désabonnement.
+ */
+export function subscribeToGame(gameId, onGame, onRoll) {
+  const controller = new AbortController()
+  let stopped = false
+
+  async function connect() {
+    const auth = useAuthStore()
+    try {
+      const response = await fetch(`/api/games/${gameId}/events`, {
+        headers: {
+          Accept: 'text/event-stream',
+          Authorization: `Bearer ${auth.token}`,
+        },
+        signal: controller.signal,
+      })
+      if (!response.ok) {
+        throw new Error(`HTTP ${response.status}`)
+      }
+      await readEvents(response.body, (event, data) => {
+        if (event === 'game') onGame(JSON.parse(data))
+        else if (event === 'roll') onRoll?.(JSON.parse(data))
+      })
+    } catch {
+      /* reconnexion ci-dessous */
+    }
+    if (!stopped) {
+      setTimeout(connect, RECONNECT_DELAY_MS)
+    }
+  }
+
+  connect()
+
+  return () => {
+    stopped = true
+    controller.abort()
+  }
+}
+
+async function readEvents(body, onEvent) {
+  const reader = body.pipeThrough(new TextDecoderStream()).getReader()
+  let buffer = ''
+  for (;;) {
+    const { value, done } = await reader.read()
+    if (done) return
+    buffer += value
+    let boundary
+    while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+      const block = buffer.slice(0, boundary)
+      buffer = buffer.slice(boundary + 2)
+      let event = 'message'
+      const data = []
+      for (const line of block.split('\n')) {
+        if (line.startsWith('event:')) event = line.slice(6).trim()
+        else if (line.startsWith('data:')) data.push(line.slice(5))
+      }
+      if (data.length) onEvent(event, data.join('\n'))
+    }
+  }
+}
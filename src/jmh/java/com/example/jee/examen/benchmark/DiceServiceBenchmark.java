@@ -0,0 +1,53 @@
+package com.example.jee.examen.benchmark;
+
+import com.example.jee.examen.runtime.GameState;
+import com.example.jee.examen.service.DiceService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiceServiceBenchmark {
+
+    /** Deux premiers dés gardés */
+    private static final int LOCK_MASK = 0b00011;
+
+    private GameState game;
+
+    @Setup
+    public void setUp(SharedDice shared) {
+        long seed = shared.diceService.newSeed();
+        game = GameState.builder().rngSeed(seed).rngState(seed).lockMask(LOCK_MASK).build();
+        shared.diceService.rollAll(game);
+    }
+
+    @Benchmark
+    public int rollAll(SharedDice shared) {
+        shared.diceService.rollAll(game);
+        return game.getDice();
+    }
+
+    @Benchmark
+    public int rerollUnlocked(SharedDice shared) {
+        shared.diceService.rerollUnlocked(game);
+        return game.getDice();
+    }
+
+    /** Un DiceService partagé par tous les threads (comme les requêtes concurrentes), une partie par thread */
+    @Benchmark
+    @Threads(4)
+    public int rollAllContended(SharedDice shared) {
+        shared.diceService.rollAll(game);
+        return game.getDice();
+    }
+
+    @State(Scope.Benchmark)
+    public static class SharedDice {
+        final DiceService diceService = new DiceService();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.jee.examen.benchmark;
+
+import com.example.jee.examen.JeeExamenApplication;
+import com.example.jee.examen.dto.RollResponse;
+import com.example.jee.examen.entity.Joueur;
+import com.example.jee.examen.enums.Category;
+import com.example.jee.examen.enums.RuntimeGameStatus;
+import com.example.jee.examen.repository.JoueurRepository;
+import com.example.jee.examen.runtime.GameState;
+import com.example.jee.examen.service.GameService;
+import com.example.jee.examen.service.GameStateManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tour complet (lancer → verrouillage + relance → score) à travers GameService,
+ * avec le contexte Spring et la base H2 en mémoire du profil par défaut.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameTurnBenchmark {
+
+    private static final List<Integer> KEEP_FIRST_TWO = List.of(0, 1);
+
+    private ConfigurableApplicationContext context;
+    private GameService gameService;
+    private GameStateManager gameStateManager;
+    private Long playerA;
+    private Long playerB;
+    private Long gameId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(JeeExamenApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+        gameService = context.getBean(GameService.class);
+        gameStateManager = context.getBean(GameStateManager.class);
+        JoueurRepository joueurRepository = context.getBean(JoueurRepository.class);
+        playerA = joueurRepository.save(Joueur.builder().pseudo("bench-a").mdp("-").build()).getId();
+        playerB = joueurRepository.save(Joueur.builder().pseudo("bench-b").mdp("-").build()).getId();
+        gameId = gameService.createGame(playerA, playerB);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object fullTurn() {
+        GameState state = gameStateManager.get(gameId).orElseThrow();
+        if (state.getStatus() == RuntimeGameStatus.FINISHED) {
+            gameId = gameService.createGame(playerA, playerB);
+            state = gameStateManager.get(gameId).orElseThrow();
+        }
+        long current = state.getCurrentPlayerId();
+        gameService.roll(gameId, current);
+        RollResponse second = gameService.lockAndRoll(gameId, current, KEEP_FIRST_TWO);
+        Category category = second.getPossibleScores().keySet().iterator().next();
+        return gameService.score(gameId, current, category);
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.jee.examen.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scénario de charge reproductible contre une instance déjà démarrée : chaque joueur s'inscrit,
+ * passe par le lobby puis joue sa partie jusqu'au bout (lancer → score au meilleur coup).
+ * Affiche le débit et les latences p50/p99 par endpoint, à comparer entre deux démarrages du
+ * backend (threads plateforme / profil Spring {@code virtual}).
+ * <p>
+ * Arguments : {@code [baseUrl] [paires de joueurs] [parties par paire]}.
+ */
+public class LoadScenario {
+
+    private static final String PASSWORD = "password";
+    private static final long POLL_INTERVAL_MS = 20;
+
+    private final String baseUrl;
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper json = new ObjectMapper();
+    private final Map<String, ConcurrentLinkedQueue<Long>> latenciesByEndpoint = new ConcurrentHashMap<>();
+    private final AtomicInteger finishedGames = new AtomicInteger();
+    private final AtomicInteger failedPlayers = new AtomicInteger();
+
+    private LoadScenario(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int pairs = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int gamesPerPair = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        new LoadScenario(baseUrl).run(pairs, gamesPerPair);
+    }
+
+    private void run(int pairs, int gamesPerPair) throws Exception {
+        String runId = Long.toString(System.currentTimeMillis() % 1_000_000, 36);
+        int players = pairs * 2;
+        ExecutorService clients = Executors.newFixedThreadPool(players);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            String pseudo = "load-" + runId + "-" + i;
+            futures.add(clients.submit(() -> playAll(pseudo, gamesPerPair)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        clients.shutdown();
+        report(players, elapsedNanos);
+    }
+
+    private void playAll(String pseudo, int games) {
+        try {
+            send("register", "POST", "/auth/register", null, Map.of("pseudo", pseudo, "password", PASSWORD));
+            String token = send("login", "POST", "/auth/login", null,
+                    Map.of("pseudo", pseudo, "password", PASSWORD)).body().get("token").asText();
+            for (int i = 0; i < games; i++) {
+                playGame(pseudo, token, joinLobby(token));
+            }
+        } catch (Exception ex) {
+            failedPlayers.incrementAndGet();
+            System.err.println(pseudo + " : " + ex.getMessage());
+        }
+    }
+
+    private long joinLobby(String token) throws Exception {
+        JsonNode ready = send("lobby/ready", "POST", "/lobby/ready", token, null).body();
+        while (!ready.path("matched").asBoolean()) {
+            ready = send("lobby/match", "GET", "/lobby/match", token, null).body();
+        }
+        return ready.get("gameId").asLong();
+    }
+
+    private void playGame(String pseudo, String token, long gameId) throws Exception {
+        String gamePath = "/games/" + gameId;
+        Long me = null;
+        long version = -1;
+        for (;;) {
+            Response poll = send("games/{id}", "GET", gamePath + "?version=" + version, token, null);
+            if (poll.status() == 304) {
+                Thread.sleep(POLL_INTERVAL_MS);
+                continue;
+            }
+            JsonNode game = poll.body();
+            version = game.path("version").asLong();
+            if (!"EN_COURS".equals(game.path("status").asText())) {
+                if (me != null && me.equals(game.path("scores").path(0).path("playerId").asLong())) {
+                    finishedGames.incrementAndGet();
+                }
+                return;
+            }
+            if (me == null) {
+                for (JsonNode sheet : game.path("scores")) {
+                    if (pseudo.equals(sheet.path("pseudo").asText())) {
+                        me = sheet.path("playerId").asLong();
+                    }
+                }
+            }
+            if (me == null || me != game.path("currentPlayerId").asLong()) {
+                Thread.sleep(POLL_INTERVAL_MS);
+                continue;
+            }
+            Response roll = send("games/{id}/roll", "POST", gamePath + "/roll", token, null);
+            if (roll.status() != 200) {
+                continue;
+            }
+            send("games/{id}/score", "POST", gamePath + "/score", token,
+                    Map.of("category", bestCategory(roll.body().path("possibleScores"))));
+        }
+    }
+
+    private static String bestCategory(JsonNode possibleScores) {
+        String best = null;
+        int bestScore = -1;
+        for (Iterator<Map.Entry<String, JsonNode>> it = possibleScores.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> entry = it.next();
+            if (entry.getValue().asInt() > bestScore) {
+                bestScore = entry.getValue().asInt();
+                best = entry.getKey();
+            }
+        }
+        return best;
+    }
+
+    private record Response(int status, JsonNode body) {
+    }
+
+    private Response send(String endpoint, String method, String path, String token, Object body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(json.writeValueAsString(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        long start = System.nanoTime();
+        HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        latenciesByEndpoint.computeIfAbsent(endpoint, e -> new ConcurrentLinkedQueue<>()).add(System.nanoTime() - start);
+        String text = response.body();
+        return new Response(response.statusCode(), text == null || text.isBlank() ? json.nullNode() : json.readTree(text));
+    }
+
+    private void report(int players, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        // Chaque partie est comptée par un seul de ses deux joueurs
+        System.out.printf("%d joueurs, %d parties terminées, %d joueurs en échec, %.1f s, %.1f parties/s%n",
+                players, finishedGames.get(), failedPlayers.get(), seconds, finishedGames.get() / seconds);
+        System.out.printf("%-18s %8s %9s %9s %9s %9s%n", "endpoint", "requêtes", "req/s", "p50 ms", "p99 ms", "max ms");
+        long total = 0;
+        for (Map.Entry<String, ConcurrentLinkedQueue<Long>> entry : new TreeMap<>(latenciesByEndpoint).entrySet()) {
+            long[] sorted = entry.getValue().stream().mapToLong(Long::longValue).sorted().toArray();
+            total += sorted.length;
+            System.out.printf("%-18s %8d %9.1f %9.2f %9.2f %9.2f%n", entry.getKey(), sorted.length,
+                    sorted.length / seconds, percentile(sorted, 0.50), percentile(sorted, 0.99),
+                    sorted[sorted.length - 1] / 1e6);
+        }
+        System.out.printf("%-18s %8d %9.1f%n", "total", total, total / seconds);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+}
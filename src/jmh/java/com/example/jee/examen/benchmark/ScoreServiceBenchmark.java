@@ -0,0 +1,60 @@
+package com.example.jee.examen.benchmark;
+
+import com.example.jee.examen.entity.ColonneScore;
+import com.example.jee.examen.enums.Category;
+import com.example.jee.examen.service.ScoreService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoreServiceBenchmark {
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final ScoreService scoreService = new ScoreService();
+
+    private int[][] rolls;
+    private ColonneScore halfFilledSheet;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        rolls = new int[][]{
+                {1, 2, 3, 4, 5},
+                {2, 2, 3, 3, 3},
+                {6, 6, 6, 6, 6},
+                {1, 3, 4, 5, 6},
+                {4, 4, 4, 2, 1},
+        };
+        halfFilledSheet = ColonneScore.builder().build();
+        for (Category category : new Category[]{Category.ONE, Category.THREE, Category.FIVE, Category.BRELAN, Category.FULL, Category.CHANCE}) {
+            scoreService.setCategoryScore(halfFilledSheet, category, 0);
+        }
+    }
+
+    private int[] nextRoll() {
+        index = (index + 1) % rolls.length;
+        return rolls[index];
+    }
+
+    @Benchmark
+    public void scoreAllCategories(Blackhole bh) {
+        int[] dice = nextRoll();
+        for (Category category : CATEGORIES) {
+            bh.consume(scoreService.score(category, dice));
+        }
+    }
+
+    @Benchmark
+    public Map<Category, Integer> possibleScores() {
+        return scoreService.possibleScores(nextRoll(), halfFilledSheet);
+    }
+}
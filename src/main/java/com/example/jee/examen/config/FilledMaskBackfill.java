@@ -0,0 +1,57 @@
+package com.example.jee.examen.config;
+
+import com.example.jee.examen.repository.ColonneScoreRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Les feuilles existantes reçoivent filled_mask = 0 à l'ajout de la colonne : on le recalcule depuis les
+ * scores, une seule fois par base. La ligne de {@code migrationAppliquee} est insérée avant la reprise, dans
+ * la même transaction : un second serveur qui démarre en même temps attend le commit puis ne fait rien.
+ */
+@Slf4j
+@Configuration
+public class FilledMaskBackfill {
+
+    static final String MIGRATION = "filled_mask";
+
+    private final ColonneScoreRepository colonneScoreRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public FilledMaskBackfill(ColonneScoreRepository colonneScoreRepository,
+                              JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager) {
+        this.colonneScoreRepository = colonneScoreRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Bean
+    CommandLineRunner backfillFilledMasks() {
+        return args -> {
+            Integer applied = jdbcTemplate.queryForObject(
+                    "select count(*) from migrationAppliquee where nom = ?", Integer.class, MIGRATION);
+            if (applied != null && applied > 0) {
+                return;
+            }
+            Integer updated;
+            try {
+                updated = transactionTemplate.execute(status -> {
+                    jdbcTemplate.update("insert into migrationAppliquee (nom, appliquee_le) values (?, ?)",
+                            MIGRATION, System.currentTimeMillis());
+                    return colonneScoreRepository.backfillFilledMasks();
+                });
+            } catch (DuplicateKeyException ex) {
+                return;
+            }
+            log.info("filled_mask recalculé pour {} feuille(s) de score", updated);
+        };
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.jee.examen.config;
+
+import com.example.jee.examen.service.ClusterRouter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Envoie chaque requête {@code /games/{id}/...} au serveur propriétaire de la partie ({@link ClusterRouter}),
+ * avant l'authentification : le propriétaire vérifie lui-même le token transmis. En mode {@code forward} la
+ * requête est relayée et la réponse recopiée au fil de l'eau (flux SSE compris) ; en mode {@code redirect}
+ * le client reçoit une 307 vers le propriétaire. L'en-tête {@code X-Yam-Owner} indique le propriétaire dans
+ * les deux cas.
+ * <p>
+ * Une requête relayée est signée avec le secret du cluster ({@link ClusterRouter#signHop}) ; seule une
+ * signature valide dispense du routage, les en-têtes de relais envoyés par un client sont ignorés.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class GameRoutingFilter extends OncePerRequestFilter {
+
+    public static final String OWNER_HEADER = "X-Yam-Owner";
+    /** Posé sur une requête relayée : le serveur qui la reçoit la traite si la signature du saut est valide */
+    public static final String FORWARDED_HEADER = "X-Yam-Forwarded-By";
+    /** Délai d'attente des en-têtes de la réponse du propriétaire ; le corps (flux SSE) n'est pas limité */
+    private static final Duration FORWARD_TIMEOUT = Duration.ofSeconds(15);
+
+    private static final Pattern GAME_PATH = Pattern.compile("^/games/(\\d+)(/.*)?$");
+    /** En-têtes propres à une connexion, ou posés par le client HTTP lui-même */
+    private static final Set<String> HOP_BY_HOP = Set.of("connection", "content-length", "expect", "host",
+            "keep-alive", "te", "trailer", "transfer-encoding", "upgrade", "proxy-connection");
+    /** En-têtes de relais, jamais recopiés depuis la requête du client */
+    private static final Set<String> HOP_HEADERS = Set.of(FORWARDED_HEADER.toLowerCase(),
+            ClusterRouter.HOP_TIMESTAMP_HEADER.toLowerCase(), ClusterRouter.HOP_SIGNATURE_HEADER.toLowerCase());
+
+    private final ClusterRouter clusterRouter;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !clusterRouter.enabled()
+                || "OPTIONS".equals(request.getMethod())
+                || clusterRouter.acceptsHop(request.getHeader(FORWARDED_HEADER), request.getMethod(), target(request),
+                        request.getHeader(ClusterRouter.HOP_TIMESTAMP_HEADER),
+                        request.getHeader(ClusterRouter.HOP_SIGNATURE_HEADER));
+    }
+
+    private static String target(HttpServletRequest request) {
+        String query = request.getQueryString();
+        return request.getRequestURI() + (query == null ? "" : "?" + query);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Matcher matcher = GAME_PATH.matcher(request.getRequestURI().substring(request.getContextPath().length()));
+        if (!matcher.matches()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Long gameId;
+        try {
+            gameId = Long.valueOf(matcher.group(1));
+        } catch (NumberFormatException ex) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (clusterRouter.isLocal(gameId)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String owner = clusterRouter.ownerOf(gameId);
+        URI target = URI.create(owner + target(request));
+        response.setHeader(OWNER_HEADER, owner);
+        if (clusterRouter.redirects()) {
+            response.setStatus(HttpServletResponse.SC_TEMPORARY_REDIRECT);
+            response.setHeader("Location", target.toString());
+            return;
+        }
+        forward(request, response, target, target(request));
+    }
+
+    private void forward(HttpServletRequest request, HttpServletResponse response, URI target, String signedTarget)
+            throws IOException {
+        byte[] body = request.getInputStream().readAllBytes();
+        long now = System.currentTimeMillis();
+        HttpRequest.Builder forwarded = HttpRequest.newBuilder(target)
+                .timeout(FORWARD_TIMEOUT)
+                .method(request.getMethod(), body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body))
+                .header(FORWARDED_HEADER, clusterRouter.self())
+                .header(ClusterRouter.HOP_TIMESTAMP_HEADER, Long.toString(now))
+                .header(ClusterRouter.HOP_SIGNATURE_HEADER,
+                        clusterRouter.signHop(clusterRouter.self(), request.getMethod(), signedTarget, now));
+        for (String name : Collections.list(request.getHeaderNames())) {
+            String lowerCase = name.toLowerCase();
+            if (!HOP_BY_HOP.contains(lowerCase) && !HOP_HEADERS.contains(lowerCase)) {
+                for (String value : Collections.list(request.getHeaders(name))) {
+                    forwarded.header(name, value);
+                }
+            }
+        }
+
+        HttpResponse<InputStream> upstream;
+        try {
+            upstream = clusterRouter.httpClient().send(forwarded.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (HttpTimeoutException ex) {
+            response.sendError(HttpServletResponse.SC_GATEWAY_TIMEOUT, "Le serveur propriétaire de la partie ne répond pas");
+            return;
+        } catch (IOException ex) {
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Serveur propriétaire de la partie injoignable");
+            return;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+
+        response.setStatus(upstream.statusCode());
+        upstream.headers().map().forEach((name, values) -> {
+            if (!HOP_BY_HOP.contains(name.toLowerCase())) {
+                values.forEach(value -> response.addHeader(name, value));
+            }
+        });
+        // Recopie morceau par morceau : les événements SSE partent dès leur réception
+        try (InputStream in = upstream.body()) {
+            OutputStream out = response.getOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.jee.examen.config;
 
 import com.example.jee.examen.service.AppUserDetailsService;
+import com.example.jee.examen.service.AuthenticatedPlayer;
 import com.example.jee.examen.service.JwtService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -15,6 +16,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -28,34 +30,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String username;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        try {
-            username = jwtService.extractUsername(jwt);
-        } catch (Exception ex) {
+        // Une seule vérification (signature + expiration) par requête
+        Optional<JwtService.VerifiedToken> verified = jwtService.verify(authHeader.substring(7));
+        if (verified.isEmpty()) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtService.isTokenValid(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+        JwtService.VerifiedToken token = verified.get();
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Id présent dans les claims : pas besoin de recharger le joueur
+            UserDetails principal = token.getPlayerId() != null
+                    ? new AuthenticatedPlayer(token.getPlayerId(), token.getSubject())
+                    : userDetailsService.loadUserByUsername(token.getSubject());
+            authenticate(principal, request);
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private void authenticate(UserDetails userDetails, HttpServletRequest request) {
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities());
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
 }
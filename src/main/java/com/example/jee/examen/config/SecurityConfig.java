@@ -1,6 +1,7 @@
 package com.example.jee.examen.config;
 
 import com.example.jee.examen.service.AppUserDetailsService;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -43,12 +44,18 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // Laisser passer les requêtes preflight OPTIONS sans authentification
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        // Les dispatchs asynchrones (flux SSE, commandes de partie) et d'erreur ont déjà été
+                        // autorisés lors de la requête initiale : sans cela une 400/403/404 devient une 401
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers(
                                 "/auth/**",
                                 "/v3/api-docs/**",
                                 "/swagger-ui/**",
                                 "/swagger-ui.html",
-                                "/h2-console/**"
+                                "/h2-console/**",
+                                "/actuator/health",
+                                // Appels entre serveurs : secret partagé vérifié par ClusterController
+                                "/internal/**"
                         ).permitAll()
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,34 @@
+package com.example.jee.examen.controller;
+
+import com.example.jee.examen.dto.StartGameRequest;
+import com.example.jee.examen.service.ClusterRouter;
+import com.example.jee.examen.service.GameService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+/** Appels entre serveurs, authentifiés par le secret partagé {@code app.cluster.secret} */
+@RestController
+@RequestMapping("/internal/games")
+@RequiredArgsConstructor
+public class ClusterController {
+
+    private final ClusterRouter clusterRouter;
+    private final GameService gameService;
+
+    @PostMapping("/{gameId}/start")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void start(@PathVariable Long gameId,
+                      @RequestHeader(name = ClusterRouter.SECRET_HEADER, required = false) String secret,
+                      @Valid @RequestBody StartGameRequest request) {
+        if (!clusterRouter.acceptsSecret(secret)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Appel interne refusé");
+        }
+        if (!clusterRouter.isLocal(gameId)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "La partie appartient à un autre serveur");
+        }
+        gameService.startGame(gameId, request.getFirstPlayerId(), request.getSecondPlayerId());
+    }
+}
@@ -1,15 +1,27 @@
 package com.example.jee.examen.controller;
 
 import com.example.jee.examen.dto.GameResponse;
+import com.example.jee.examen.dto.HintResponse;
 import com.example.jee.examen.dto.LockRequest;
+import com.example.jee.examen.dto.ReplayResponse;
 import com.example.jee.examen.dto.RollResponse;
 import com.example.jee.examen.dto.ScoreRequest;
-import com.example.jee.examen.entity.Joueur;
+import com.example.jee.examen.enums.PartieStatus;
 import com.example.jee.examen.service.AuthenticatedUserService;
+import com.example.jee.examen.service.GameCommandExecutor;
+import com.example.jee.examen.service.GameEventPublisher;
 import com.example.jee.examen.service.GameService;
+import com.example.jee.examen.service.ReplayService;
+import com.example.jee.examen.service.StrategyService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/games")
@@ -18,28 +30,63 @@ public class GameController {
 
     private final GameService gameService;
     private final AuthenticatedUserService authenticatedUserService;
+    private final GameEventPublisher gameEventPublisher;
+    private final GameCommandExecutor gameCommands;
+    private final StrategyService strategyService;
+    private final ReplayService replayService;
 
+    /** Avec {@code version}, répond 304 sans corps si l'état n'a pas changé depuis cette version */
     @GetMapping("/{gameId}")
-    public GameResponse getGame(@PathVariable Long gameId) {
-        Joueur joueur = authenticatedUserService.currentUser();
-        return gameService.getGame(gameId, joueur.getId());
+    public CompletableFuture<ResponseEntity<GameResponse>> getGame(@PathVariable Long gameId,
+                                                                   @RequestParam(required = false) Long version) {
+        Long playerId = authenticatedUserService.currentPlayerId();
+        if (version == null) {
+            return gameCommands.submit(gameId, () -> ResponseEntity.ok(gameService.getGame(gameId, playerId)));
+        }
+        return gameCommands.submit(gameId, () -> gameService.getGameIfChanged(gameId, playerId, version)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).build()));
+    }
+
+    @GetMapping(value = "/{gameId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@PathVariable Long gameId) {
+        Long playerId = authenticatedUserService.currentPlayerId();
+        GameResponse snapshot = gameCommands.call(gameId, () -> gameService.getGame(gameId, playerId));
+        SseEmitter emitter = gameEventPublisher.subscribe(gameId);
+        gameEventPublisher.send(gameId, emitter, GameEventPublisher.GAME_EVENT, snapshot);
+        if (snapshot.getStatus() != PartieStatus.EN_COURS) {
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    @GetMapping("/{gameId}/hint")
+    public CompletableFuture<HintResponse> hint(@PathVariable Long gameId) {
+        Long playerId = authenticatedUserService.currentPlayerId();
+        return gameCommands.submit(gameId, () -> strategyService.hint(gameId, playerId));
+    }
+
+    /** Partie terminée uniquement : graine, coups joués et résultat du rejeu */
+    @GetMapping("/{gameId}/replay")
+    public ReplayResponse replay(@PathVariable Long gameId) {
+        return replayService.replay(gameId, authenticatedUserService.currentPlayerId());
     }
 
     @PostMapping("/{gameId}/roll")
-    public RollResponse roll(@PathVariable Long gameId) {
-        Joueur joueur = authenticatedUserService.currentUser();
-        return gameService.roll(gameId, joueur.getId());
+    public CompletableFuture<RollResponse> roll(@PathVariable Long gameId) {
+        Long playerId = authenticatedUserService.currentPlayerId();
+        return gameCommands.submit(gameId, () -> gameService.roll(gameId, playerId));
     }
 
     @PostMapping("/{gameId}/lock")
-    public RollResponse lockAndRoll(@PathVariable Long gameId, @Valid @RequestBody LockRequest request) {
-        Joueur joueur = authenticatedUserService.currentUser();
-        return gameService.lockAndRoll(gameId, joueur.getId(), request.getLockedIndexes());
+    public CompletableFuture<RollResponse> lockAndRoll(@PathVariable Long gameId, @Valid @RequestBody LockRequest request) {
+        Long playerId = authenticatedUserService.currentPlayerId();
+        return gameCommands.submit(gameId, () -> gameService.lockAndRoll(gameId, playerId, request.getLockedIndexes()));
     }
 
     @PostMapping("/{gameId}/score")
-    public GameResponse score(@PathVariable Long gameId, @Valid @RequestBody ScoreRequest request) {
-        Joueur joueur = authenticatedUserService.currentUser();
-        return gameService.score(gameId, joueur.getId(), request.getCategory());
+    public CompletableFuture<GameResponse> score(@PathVariable Long gameId, @Valid @RequestBody ScoreRequest request) {
+        Long playerId = authenticatedUserService.currentPlayerId();
+        return gameCommands.submit(gameId, () -> gameService.score(gameId, playerId, request.getCategory()));
     }
 }
@@ -1,13 +1,14 @@
 package com.example.jee.examen.controller;
 
 import com.example.jee.examen.dto.LobbyReadyResponse;
-import com.example.jee.examen.entity.Joueur;
 import com.example.jee.examen.service.AuthenticatedUserService;
 import com.example.jee.examen.service.LobbyService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/lobby")
 @RequiredArgsConstructor
@@ -18,14 +19,20 @@ public class LobbyController {
 
     @PostMapping("/ready")
     public LobbyReadyResponse ready() {
-        Joueur joueur = authenticatedUserService.currentUser();
-        return lobbyService.ready(joueur.getId());
+        Long playerId = authenticatedUserService.currentPlayerId();
+        return lobbyService.ready(playerId);
+    }
+
+    @GetMapping("/match")
+    public CompletableFuture<LobbyReadyResponse> awaitMatch() {
+        Long playerId = authenticatedUserService.currentPlayerId();
+        return lobbyService.awaitMatch(playerId);
     }
 
     @DeleteMapping("/ready")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void cancelReady() {
-        Joueur joueur = authenticatedUserService.currentUser();
-        lobbyService.cancelReady(joueur.getId());
+        Long playerId = authenticatedUserService.currentPlayerId();
+        lobbyService.cancelReady(playerId);
     }
 }
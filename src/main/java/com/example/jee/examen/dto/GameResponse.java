@@ -19,4 +19,6 @@ public class GameResponse {
     private long turnDeadlineAt;
     private List<ScoreSheetDto> scores;
     private Long winnerId;
+    private long version;
+    private long sheetsVersion;
 }
@@ -0,0 +1,18 @@
+package com.example.jee.examen.dto;
+
+import com.example.jee.examen.enums.Category;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class HintResponse {
+    /** Catégorie à marquer maintenant, null s'il vaut mieux relancer */
+    private Category category;
+    /** Index des dés à garder (à verrouiller) avant de relancer, null s'il faut marquer */
+    private List<Integer> keepIndexes;
+    /** Score final espéré en jouant la stratégie optimale à partir de maintenant */
+    private double expectedFinalScore;
+}
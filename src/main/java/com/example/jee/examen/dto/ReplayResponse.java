@@ -0,0 +1,20 @@
+package com.example.jee.examen.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ReplayResponse {
+    private Long gameId;
+    private long rngSeed;
+    /** Dans l'ordre de jeu : le premier joueur commence */
+    private List<Long> playerIds;
+    /** Coups dans l'ordre : "ROLL", "ROLL keep 0,3", "SCORE FULL", "PENALTY" */
+    private List<String> moves;
+    /** Vrai si le rejeu redonne exactement les feuilles de score enregistrées */
+    private boolean verified;
+    private String mismatch;
+}
@@ -4,7 +4,6 @@ import com.example.jee.examen.enums.Category;
 import lombok.Builder;
 import lombok.Data;
 
-import java.util.List;
 import java.util.Map;
 
 @Data
@@ -16,5 +15,7 @@ public class RollResponse {
     private int rollsLeft;
     private long turnDeadlineAt;
     private Map<Category, Integer> possibleScores;
-    private List<ScoreSheetDto> scores;
+    /** Les feuilles ne changent pas sur un lancer : le client les recharge si sheetsVersion change */
+    private long version;
+    private long sheetsVersion;
 }
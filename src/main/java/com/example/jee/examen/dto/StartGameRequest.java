@@ -0,0 +1,16 @@
+package com.example.jee.examen.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StartGameRequest {
+    @NotNull
+    private Long firstPlayerId;
+    @NotNull
+    private Long secondPlayerId;
+}
@@ -2,6 +2,7 @@ package com.example.jee.examen.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "colonneScore")
@@ -72,4 +73,10 @@ public class ColonneScore {
     @Column(name = "score_total", nullable = false)
     @Builder.Default
     private Integer scoreTotal = 0;
+
+    /** Bit n à 1 ⇔ la catégorie d'ordinal n ({@link com.example.jee.examen.enums.Category}) est remplie */
+    @Column(name = "filled_mask", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer filledMask = 0;
 }
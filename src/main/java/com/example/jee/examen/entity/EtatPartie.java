@@ -0,0 +1,29 @@
+package com.example.jee.examen.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * État d'une partie en cours partagé par tous les serveurs ({@code app.games.store=jdbc}), encodé par
+ * {@link com.example.jee.examen.service.GameStateCodec}. Lu et écrit par JDBC ; l'entité sert au schéma.
+ */
+@Entity
+@Table(name = "etatPartie")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EtatPartie {
+
+    @Id
+    @Column(name = "id_partie")
+    private Long idPartie;
+
+    /** Incrémentée à chaque écriture : une écriture n'aboutit que sur la révision lue */
+    @Column(nullable = false)
+    private Long revision;
+
+    @Column(nullable = false, length = 512)
+    private byte[] data;
+}
@@ -0,0 +1,43 @@
+package com.example.jee.examen.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * Joueur prêt dans le lobby partagé par tous les serveurs ({@code app.lobby.store=jdbc}). La ligne reste
+ * après l'appariement, avec la partie, jusqu'à ce que le joueur la récupère. Lu et écrit par JDBC ;
+ * l'entité sert au schéma.
+ */
+@Entity
+@Table(name = "fileAttente", indexes = @Index(name = "idx_fileAttente_elo", columnList = "elo"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FileAttente {
+
+    @Id
+    @Column(name = "id_joueur")
+    private Long idJoueur;
+
+    @Column(name = "pret_le", nullable = false)
+    private Long pretLe;
+
+    @Column(name = "expire_le", nullable = false)
+    private Long expireLe;
+
+    /** Cote Elo du joueur à son entrée en file */
+    @Column(nullable = false)
+    @ColumnDefault("1200")
+    private Integer elo;
+
+    /** Instant de réservation par un serveur en cours d'appariement, 0 si libre */
+    @Column(name = "reserve_le", nullable = false)
+    private Long reserveLe;
+
+    /** Partie obtenue, null tant que le joueur attend */
+    @Column(name = "id_partie")
+    private Long idPartie;
+}
@@ -2,6 +2,7 @@ package com.example.jee.examen.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "joueur")
@@ -21,4 +22,14 @@ public class Joueur {
 
     @Column(nullable = false)
     private String mdp;
+
+    /** Cote Elo, mise à jour à chaque partie terminée */
+    @Column(nullable = false)
+    @ColumnDefault("1200")
+    @Builder.Default
+    private Integer elo = 1200;
+
+    /** Stratégie du bot qui joue ce compte ; null pour un joueur humain */
+    @Column(name = "bot_strategy", unique = true, length = 50)
+    private String botStrategy;
 }
@@ -0,0 +1,25 @@
+package com.example.jee.examen.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Reprise de données déjà appliquée à cette base : une ligne par reprise, insérée dans la même transaction
+ * que la reprise elle-même. Lu et écrit par JDBC ; l'entité sert au schéma.
+ */
+@Entity
+@Table(name = "migrationAppliquee")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MigrationAppliquee {
+
+    @Id
+    @Column(length = 100)
+    private String nom;
+
+    @Column(name = "appliquee_le", nullable = false)
+    private Long appliqueeLe;
+}
@@ -0,0 +1,35 @@
+package com.example.jee.examen.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * De quoi rejouer une partie terminée : graine des dés, ordre des joueurs et suite des coups
+ * ({@link com.example.jee.examen.runtime.MoveLog}, un octet par coup).
+ */
+@Entity
+@Table(name = "partieReplay")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PartieReplay {
+
+    @Id
+    @Column(name = "id_partie")
+    private Long idPartie;
+
+    @Column(name = "rng_seed", nullable = false)
+    private Long rngSeed;
+
+    /** Joueur qui commence la partie */
+    @Column(name = "id_joueur_1", nullable = false)
+    private Long idJoueur1;
+
+    @Column(name = "id_joueur_2", nullable = false)
+    private Long idJoueur2;
+
+    @Column(nullable = false, length = 512)
+    private byte[] moves;
+}
@@ -23,4 +23,8 @@ public class Parties {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private PartieStatus status;
+
+    /** Graine des dés de la partie, conservée pour pouvoir rejouer les lancers (audit) */
+    @Column(name = "rng_seed")
+    private Long rngSeed;
 }
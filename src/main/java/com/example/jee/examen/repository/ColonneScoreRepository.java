@@ -5,8 +5,11 @@ import com.example.jee.examen.enums.PartieStatus;
 import com.example.jee.examen.service.HallOfFameRow;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +17,7 @@ public interface ColonneScoreRepository extends JpaRepository<ColonneScore, Long
     Optional<ColonneScore> findByIdPartieAndIdJoueur(Long idPartie, Long idJoueur);
     List<ColonneScore> findByIdPartieOrderByIdJoueurAsc(Long idPartie);
     boolean existsByIdPartieAndIdJoueur(Long idPartie, Long idJoueur);
+    List<ColonneScore> findByIdPartieIn(Collection<Long> idPartie);
 
     @Query("""
         select new com.example.jee.examen.service.HallOfFameRow(c.idPartie, j.pseudo, c.scoreTotal)
@@ -24,4 +28,31 @@ public interface ColonneScoreRepository extends JpaRepository<ColonneScore, Long
         order by c.scoreTotal desc
         """)
     List<HallOfFameRow> findTopByPartieStatus(PartieStatus status, Pageable pageable);
+
+    /** Recalcule filled_mask pour les feuilles créées avant l'ajout de la colonne ; les feuilles vides ne sont pas touchées */
+    @Transactional
+    @Modifying
+    @Query("""
+        update ColonneScore c set c.filledMask =
+              (case when c.score1 is not null then 1 else 0 end)
+            + (case when c.score2 is not null then 2 else 0 end)
+            + (case when c.score3 is not null then 4 else 0 end)
+            + (case when c.score4 is not null then 8 else 0 end)
+            + (case when c.score5 is not null then 16 else 0 end)
+            + (case when c.score6 is not null then 32 else 0 end)
+            + (case when c.scoreBrelan is not null then 64 else 0 end)
+            + (case when c.scoreCarre is not null then 128 else 0 end)
+            + (case when c.scoreFull is not null then 256 else 0 end)
+            + (case when c.scorePetiteSuite is not null then 512 else 0 end)
+            + (case when c.scoreGrandeSuite is not null then 1024 else 0 end)
+            + (case when c.scoreYam is not null then 2048 else 0 end)
+            + (case when c.scoreChance is not null then 4096 else 0 end)
+        where c.filledMask = 0
+          and (c.score1 is not null or c.score2 is not null or c.score3 is not null
+            or c.score4 is not null or c.score5 is not null or c.score6 is not null
+            or c.scoreBrelan is not null or c.scoreCarre is not null or c.scoreFull is not null
+            or c.scorePetiteSuite is not null or c.scoreGrandeSuite is not null
+            or c.scoreYam is not null or c.scoreChance is not null)
+        """)
+    int backfillFilledMasks();
 }
@@ -8,4 +8,5 @@ import java.util.Optional;
 public interface JoueurRepository extends JpaRepository<Joueur, Long> {
     Optional<Joueur> findByPseudo(String pseudo);
     boolean existsByPseudo(String pseudo);
+    Optional<Joueur> findByBotStrategy(String botStrategy);
 }
@@ -0,0 +1,11 @@
+package com.example.jee.examen.repository;
+
+import com.example.jee.examen.entity.PartieReplay;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface PartieReplayRepository extends JpaRepository<PartieReplay, Long> {
+    List<PartieReplay> findByIdPartieGreaterThanOrderByIdPartieAsc(Long idPartie, Pageable pageable);
+}
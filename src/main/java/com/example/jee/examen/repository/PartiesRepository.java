@@ -1,7 +1,20 @@
 package com.example.jee.examen.repository;
 
 import com.example.jee.examen.entity.Parties;
+import com.example.jee.examen.enums.PartieStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface PartiesRepository extends JpaRepository<Parties, Long> {
+    List<Parties> findByStatus(PartieStatus status);
+
+    /** Verrouille la ligne jusqu'à la fin de la transaction (démarrage ou abandon d'une partie répartie) */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Parties p where p.id = :id")
+    Optional<Parties> findByIdForUpdate(Long id);
 }
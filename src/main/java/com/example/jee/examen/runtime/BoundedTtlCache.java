@@ -0,0 +1,87 @@
+package com.example.jee.examen.runtime;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Cache mémoire borné avec expiration, sans verrou : au-delà de la taille maximale, les entrées
+ * expirées sont purgées puis, si besoin, des entrées quelconques sont évincées jusqu'à 90 % de la taille
+ * maximale. Le parcours ne revient donc qu'après un dixième de la taille en nouvelles entrées, et un seul
+ * thread le fait à la fois. Les valeurs null ne sont jamais mises en cache.
+ */
+public class BoundedTtlCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    /** Taille visée par une éviction */
+    private final int lowWaterMark;
+    private final long ttlMs;
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public BoundedTtlCache(int maxSize, Duration ttl) {
+        this.maxSize = maxSize;
+        this.lowWaterMark = Math.max(0, maxSize - Math.max(1, maxSize / 10));
+        this.ttlMs = ttl.toMillis();
+    }
+
+    public V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() < System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = getIfPresent(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMs));
+        if (entries.size() > maxSize && evicting.compareAndSet(false, true)) {
+            try {
+                evict(key);
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** {@code justPut} est épargnée : la valeur qui vient d'être chargée reste disponible */
+    private void evict(K justPut) {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt() < now);
+        Iterator<K> keys = entries.keySet().iterator();
+        while (entries.size() > lowWaterMark && keys.hasNext()) {
+            if (!keys.next().equals(justPut)) {
+                keys.remove();
+            }
+        }
+    }
+}
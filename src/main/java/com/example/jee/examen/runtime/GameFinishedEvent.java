@@ -0,0 +1,7 @@
+package com.example.jee.examen.runtime;
+
+import com.example.jee.examen.enums.PartieStatus;
+
+/** Publié quand une partie se termine, normalement (TERMINE) ou par abandon */
+public record GameFinishedEvent(Long gameId, PartieStatus status) {
+}
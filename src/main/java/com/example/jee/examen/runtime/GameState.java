@@ -1,25 +1,149 @@
 package com.example.jee.examen.runtime;
 
+import com.example.jee.examen.entity.ColonneScore;
 import com.example.jee.examen.enums.RuntimeGameStatus;
 import lombok.*;
 
 import java.util.List;
-import java.util.Map;
 
+/**
+ * État en mémoire d'une partie à deux joueurs, en champs primitifs pour limiter le coût par partie.
+ * Les dés tiennent dans un entier : 3 bits par dé, le dé i sur les bits {@code 3i..3i+2}
+ * (0 = pas encore lancé) ; les verrous dans un masque de 5 bits (bit i = dé i gardé).
+ * Les joueurs sont désignés par leur index : 0 pour celui qui commence, 1 pour l'autre.
+ */
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class GameState {
-    private Long partieId;
-    private List<Long> playerIds;
-    private Long currentPlayerId;
-    private int[] dice;
-    private boolean[] locked;
+
+    public static final int DICE_COUNT = 5;
+    private static final int DIE_BITS = 3;
+    private static final int DIE_MASK = (1 << DIE_BITS) - 1;
+
+    private long partieId;
+    private long firstPlayerId;
+    private long secondPlayerId;
+    /** Pseudos résolus à la création de la partie, pour construire les réponses sans requête */
+    private String firstPseudo;
+    private String secondPseudo;
+    /** Index (0 ou 1) du joueur dont c'est le tour */
+    private int currentPlayerIndex;
+    private int dice;
+    private int lockMask;
     private int rollCount;
     private long turnStartedAt;
     private long turnDeadlineAt;
-    private Map<Long, Integer> extraYamCount;
+    /** Numéro du tour courant : une échéance planifiée pour un tour déjà joué est ignorée */
+    private int turnNumber;
+    /** Dernière action d'un joueur (lancer, verrouillage, score) : sert à détecter les parties abandonnées */
+    private long lastActionAt;
+    /** Instant de fin de partie, 0 tant qu'elle est en cours */
+    private long finishedAt;
+    /** Yams supplémentaires (prime de 100 points) de chaque joueur */
+    private int firstExtraYams;
+    private int secondExtraYams;
+    /** Feuilles de score de référence pendant la partie (triées par id joueur), écrites en différé en base */
+    private List<ColonneScore> sheets;
     private RuntimeGameStatus status;
+    /** Incrémentée à chaque changement d'état visible (lancer, score, changement de tour, fin) */
+    private long version;
+    /** Incrémentée uniquement quand une feuille de score change */
+    private long sheetsVersion;
+    /** Graine du générateur de dés de la partie (reproductibilité des lancers) */
+    private long rngSeed;
+    /** État courant du générateur SplitMix64, avance à chaque dé lancé */
+    private long rngState;
+    /** Coups joués depuis le début de la partie, conservés en fin de partie pour le rejeu */
+    private MoveLog moveLog;
+
+    public long playerId(int index) {
+        return index == 0 ? firstPlayerId : secondPlayerId;
+    }
+
+    /** Index du joueur dans la partie, -1 s'il n'y participe pas */
+    public int playerIndex(long playerId) {
+        return playerId == firstPlayerId ? 0 : playerId == secondPlayerId ? 1 : -1;
+    }
+
+    public boolean hasPlayer(long playerId) {
+        return playerIndex(playerId) >= 0;
+    }
+
+    public long getCurrentPlayerId() {
+        return playerId(currentPlayerIndex);
+    }
+
+    /** Dans l'ordre de jeu ; alloue une liste, réservé aux réponses */
+    public List<Long> playerIds() {
+        return List.of(firstPlayerId, secondPlayerId);
+    }
+
+    public String pseudo(long playerId) {
+        return switch (playerIndex(playerId)) {
+            case 0 -> firstPseudo;
+            case 1 -> secondPseudo;
+            default -> null;
+        };
+    }
+
+    public int extraYams(long playerId) {
+        return playerId == firstPlayerId ? firstExtraYams : playerId == secondPlayerId ? secondExtraYams : 0;
+    }
+
+    public void setExtraYams(long playerId, int count) {
+        if (playerId == firstPlayerId) {
+            firstExtraYams = count;
+        } else if (playerId == secondPlayerId) {
+            secondExtraYams = count;
+        }
+    }
+
+    public int die(int index) {
+        return die(dice, index);
+    }
+
+    public static int die(int packedDice, int index) {
+        return (packedDice >>> (index * DIE_BITS)) & DIE_MASK;
+    }
+
+    public static int withDie(int packedDice, int index, int value) {
+        int shift = index * DIE_BITS;
+        return (packedDice & ~(DIE_MASK << shift)) | (value << shift);
+    }
+
+    public boolean isLocked(int index) {
+        return (lockMask & (1 << index)) != 0;
+    }
+
+    /** Copie des dés en tableau, pour les réponses */
+    public int[] diceArray() {
+        int[] values = new int[DICE_COUNT];
+        for (int i = 0; i < DICE_COUNT; i++) {
+            values[i] = die(i);
+        }
+        return values;
+    }
+
+    /** Copie des verrous en tableau, pour les réponses */
+    public boolean[] lockedArray() {
+        boolean[] values = new boolean[DICE_COUNT];
+        for (int i = 0; i < DICE_COUNT; i++) {
+            values[i] = isLocked(i);
+        }
+        return values;
+    }
+
+    /** Passe la main à l'autre joueur : dés, verrous et lancers remis à zéro sans allocation */
+    public void startNextTurn(long now, long turnDurationMs) {
+        currentPlayerIndex ^= 1;
+        dice = 0;
+        lockMask = 0;
+        rollCount = 0;
+        turnStartedAt = now;
+        turnDeadlineAt = now + turnDurationMs;
+        turnNumber++;
+    }
 }
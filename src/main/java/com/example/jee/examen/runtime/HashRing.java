@@ -0,0 +1,80 @@
+package com.example.jee.examen.runtime;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Anneau de hachage cohérent : chaque nœud y occupe {@code virtualNodes} points, une clé appartient au
+ * premier point rencontré après son empreinte. Ajouter ou retirer un nœud ne déplace que les clés des
+ * points concernés (environ une sur n). Le hachage ne dépend que des noms de nœuds, tous les serveurs
+ * configurés avec la même liste calculent donc le même propriétaire. Immuable.
+ */
+public class HashRing {
+
+    private final List<String> nodes;
+    private final long[] points;
+    private final String[] owners;
+
+    public HashRing(List<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty() || virtualNodes <= 0) {
+            throw new IllegalArgumentException("Au moins un nœud et un point par nœud sont requis");
+        }
+        this.nodes = List.copyOf(nodes);
+        long[] hashes = new long[nodes.size() * virtualNodes];
+        String[] names = new String[hashes.length];
+        int i = 0;
+        for (String node : this.nodes) {
+            for (int v = 0; v < virtualNodes; v++, i++) {
+                hashes[i] = hash(node + "#" + v);
+                names[i] = node;
+            }
+        }
+        // Tri des points avec leur propriétaire ; une collision est départagée par le nom pour rester déterministe
+        Integer[] order = new Integer[hashes.length];
+        for (int k = 0; k < order.length; k++) {
+            order[k] = k;
+        }
+        Arrays.sort(order, (a, b) -> hashes[a] != hashes[b]
+                ? Long.compare(hashes[a], hashes[b])
+                : names[a].compareTo(names[b]));
+        this.points = new long[hashes.length];
+        this.owners = new String[hashes.length];
+        for (int k = 0; k < order.length; k++) {
+            points[k] = hashes[order[k]];
+            owners[k] = names[order[k]];
+        }
+    }
+
+    public String ownerOf(long key) {
+        int index = Arrays.binarySearch(points, mix(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    private static long hash(String value) {
+        // FNV-1a 64 bits, puis brassage : des noms proches donnent des points éloignés
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    /** Finaliseur de MurmurHash3 : les ids consécutifs se répartissent uniformément sur l'anneau */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
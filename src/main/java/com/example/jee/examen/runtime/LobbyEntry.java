@@ -2,6 +2,9 @@ package com.example.jee.examen.runtime;
 
 import lombok.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 @Getter
 @Setter
 @NoArgsConstructor
@@ -11,4 +14,14 @@ public class LobbyEntry {
     private Long playerId;
     private long readyAt;
     private long expiresAt;
+    /** Cote Elo du joueur à son entrée en file */
+    private int elo;
+
+    /** Passe à true dès qu'un appariement (ou une annulation) s'approprie l'entrée */
+    @Builder.Default
+    private AtomicBoolean claimed = new AtomicBoolean(false);
+
+    /** Complété avec le gameId quand le joueur est apparié */
+    @Builder.Default
+    private CompletableFuture<Long> match = new CompletableFuture<>();
 }
@@ -0,0 +1,337 @@
+package com.example.jee.examen.runtime;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal local en ajout seul, découpé en segments {@code journal-<n>.log}. Chaque enregistrement porte
+ * une empreinte chaînée (CRC32C de l'empreinte précédente et du contenu, amorcée par le numéro du
+ * segment) : une fin de segment tronquée ou un enregistrement altéré arrête la relecture à cet endroit.
+ * <p>
+ * {@link #append} ne fait que déposer l'enregistrement dans une file ; un thread unique écrit les
+ * enregistrements par lots et appelle {@code fsync} une fois par lot (commit groupé).
+ * Un instantané ({@link #writeSnapshot}) remplace les segments qui le précèdent.
+ */
+@Slf4j
+public class MoveJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final int SNAPSHOT_MAGIC = 0x594A4E31;
+    private static final int RECORD_HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int BUFFER_BYTES = 256 * 1024;
+    private static final int MAX_RECORD_BYTES = BUFFER_BYTES - RECORD_HEADER_BYTES;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    /** Marqueur de changement de segment, traité dans l'ordre de la file */
+    private record Rotation(CompletableFuture<Long> done) {
+    }
+
+    private final Path directory;
+    private final boolean fsync;
+    private final Queue<Object> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final CRC32C crc = new CRC32C();
+    private final Thread writer;
+    private volatile boolean writerParked;
+    private volatile boolean closed;
+
+    private FileChannel channel;
+    private long segment;
+    private int chain;
+
+    public MoveJournal(Path directory, long firstSegment, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(directory);
+            openSegment(firstSegment);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        this.writer = new Thread(this::writeLoop, "move-journal");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public void append(byte[] payload) {
+        if (payload.length > MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Enregistrement trop grand : " + payload.length + " octets");
+        }
+        enqueue(payload);
+    }
+
+    /** Passe au segment suivant après les enregistrements déjà déposés ; renvoie le numéro du nouveau segment */
+    public CompletableFuture<Long> rotate() {
+        CompletableFuture<Long> done = new CompletableFuture<>();
+        enqueue(new Rotation(done));
+        return done;
+    }
+
+    public int pending() {
+        return pendingCount.get();
+    }
+
+    /** Vide la file, écrit et synchronise ce qui reste puis ferme le segment courant */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void enqueue(Object item) {
+        if (closed) {
+            throw new IllegalStateException("Journal fermé");
+        }
+        pending.add(item);
+        pendingCount.incrementAndGet();
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            Object item = pending.poll();
+            if (item == null) {
+                if (closed) {
+                    break;
+                }
+                writerParked = true;
+                if (pending.isEmpty() && !closed) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                writerParked = false;
+                continue;
+            }
+            try {
+                writeBatch(item);
+            } catch (IOException | RuntimeException ex) {
+                log.error("Échec d'écriture du journal des coups (segment {})", segment, ex);
+            }
+        }
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException ex) {
+            log.warn("Fermeture du journal des coups incomplète", ex);
+        }
+    }
+
+    /** Écrit le premier élément et tout ce qui le suit déjà dans la file, puis un seul fsync */
+    private void writeBatch(Object first) throws IOException {
+        Object item = first;
+        while (item != null) {
+            pendingCount.decrementAndGet();
+            if (item instanceof Rotation rotation) {
+                flushBuffer();
+                channel.close();
+                openSegment(segment + 1);
+                rotation.done().complete(segment);
+            } else {
+                byte[] payload = (byte[]) item;
+                if (buffer.remaining() < RECORD_HEADER_BYTES + payload.length) {
+                    flushBuffer();
+                }
+                chain = nextChain(crc, chain, payload);
+                buffer.putInt(payload.length).putInt(chain).put(payload);
+            }
+            item = pending.poll();
+        }
+        flushBuffer();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    private void openSegment(long number) throws IOException {
+        segment = number;
+        chain = (int) number;
+        channel = FileChannel.open(segmentPath(directory, number),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    private static int nextChain(CRC32C crc, int previous, byte[] payload) {
+        crc.reset();
+        crc.update(ByteBuffer.allocate(Integer.BYTES).putInt(previous).flip());
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static Path segmentPath(Path directory, long number) {
+        return directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    /** Segments présents dans le répertoire, par numéro croissant */
+    public static TreeMap<Long, Path> segments(Path directory) throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String number = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+                try {
+                    segments.put(Long.parseLong(number), file);
+                } catch (NumberFormatException ignored) {
+                    // fichier étranger au journal
+                }
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Relit les enregistrements valides des segments à partir de {@code fromSegment}, dans l'ordre.
+     * Un segment dont la chaîne est rompue est tronqué au dernier enregistrement valide.
+     *
+     * @return numéro du dernier segment lu, {@code fromSegment - 1} s'il n'y en a aucun
+     */
+    public static long replay(Path directory, long fromSegment, Consumer<ByteBuffer> consumer) throws IOException {
+        long last = fromSegment - 1;
+        CRC32C crc = new CRC32C();
+        for (var entry : segments(directory).tailMap(fromSegment).entrySet()) {
+            last = entry.getKey();
+            Path file = entry.getValue();
+            ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+            int chain = (int) (long) entry.getKey();
+            int validEnd = 0;
+            while (data.remaining() >= RECORD_HEADER_BYTES) {
+                int length = data.getInt();
+                int expected = data.getInt();
+                if (length < 0 || length > MAX_RECORD_BYTES || length > data.remaining()) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                data.get(payload);
+                if (nextChain(crc, chain, payload) != expected) {
+                    break;
+                }
+                chain = expected;
+                validEnd = data.position();
+                consumer.accept(ByteBuffer.wrap(payload));
+            }
+            if (validEnd < data.limit()) {
+                log.warn("Journal {} tronqué à {} octets sur {} (fin incomplète ou chaîne rompue)",
+                        file.getFileName(), validEnd, data.limit());
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.truncate(validEnd);
+                }
+            }
+        }
+        return last;
+    }
+
+    /** Supprime les segments couverts par un instantané */
+    public static void deleteSegmentsBefore(Path directory, long segment) throws IOException {
+        for (Path file : segments(directory).headMap(segment).values()) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Écrit l'instantané de façon atomique (fichier temporaire synchronisé puis renommé).
+     * {@code baseSegment} est le premier segment à rejouer après l'instantané.
+     */
+    public static void writeSnapshot(Path directory, long baseSegment, List<byte[]> records) throws IOException {
+        int size = Integer.BYTES + Long.BYTES + Integer.BYTES;
+        for (byte[] record : records) {
+            size += Integer.BYTES + record.length;
+        }
+        ByteBuffer data = ByteBuffer.allocate(size + Integer.BYTES);
+        data.putInt(SNAPSHOT_MAGIC).putLong(baseSegment).putInt(records.size());
+        for (byte[] record : records) {
+            data.putInt(record.length).put(record);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(data.array(), 0, size);
+        data.putInt((int) crc.getValue()).flip();
+
+        Files.createDirectories(directory);
+        Path target = directory.resolve(SNAPSHOT_FILE);
+        Path tmp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Relit l'instantané s'il existe et est intact.
+     *
+     * @return premier segment à rejouer ensuite, 0 sans instantané exploitable
+     */
+    public static long readSnapshot(Path directory, Consumer<ByteBuffer> consumer) throws IOException {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        int headerBytes = Integer.BYTES + Long.BYTES + Integer.BYTES;
+        if (bytes.length < headerBytes + Integer.BYTES) {
+            log.warn("Instantané {} ignoré : fichier incomplet", file);
+            return 0;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, bytes.length - Integer.BYTES);
+        ByteBuffer data = ByteBuffer.wrap(bytes);
+        if (data.getInt() != SNAPSHOT_MAGIC || data.getInt(bytes.length - Integer.BYTES) != (int) crc.getValue()) {
+            log.warn("Instantané {} ignoré : en-tête ou empreinte invalide", file);
+            return 0;
+        }
+        long baseSegment = data.getLong();
+        int count = data.getInt();
+        List<ByteBuffer> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] record = new byte[data.getInt()];
+            data.get(record);
+            records.add(ByteBuffer.wrap(record));
+        }
+        records.forEach(consumer);
+        return baseSegment;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.jee.examen.runtime;
+
+import com.example.jee.examen.enums.Category;
+
+import java.util.Arrays;
+
+/**
+ * Suite des coups d'une partie, un octet par coup : avec la graine des dés elle suffit à rejouer
+ * la partie. Le joueur de chaque coup se déduit de l'ordre des tours.
+ * <ul>
+ *   <li>{@code 00xmmmmm} : lancer, {@code m} = dés gardés (bit i pour le dé i)</li>
+ *   <li>{@code 01cccccc} : score dans la catégorie d'ordinal {@code c}</li>
+ *   <li>{@code 10000000} : pénalité de fin de tour (0 dans la première catégorie libre)</li>
+ * </ul>
+ */
+public class MoveLog {
+
+    public static final int ROLL = 0;
+    public static final int SCORE = 1;
+    public static final int PENALTY = 2;
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    private byte[] moves;
+    private int size;
+
+    public MoveLog() {
+        this(new byte[32], 0);
+    }
+
+    private MoveLog(byte[] moves, int size) {
+        this.moves = moves;
+        this.size = size;
+    }
+
+    public static MoveLog of(byte[] moves) {
+        return new MoveLog(moves.clone(), moves.length);
+    }
+
+    public void roll(int lockMask) {
+        add(lockMask & 0x1F);
+    }
+
+    public void score(Category category) {
+        add(SCORE << 6 | category.ordinal());
+    }
+
+    public void penalty() {
+        add(PENALTY << 6);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(moves, size);
+    }
+
+    public static int type(byte move) {
+        return (move & 0xFF) >>> 6;
+    }
+
+    public static int lockMask(byte move) {
+        return move & 0x1F;
+    }
+
+    public static Category category(byte move) {
+        return CATEGORIES[move & 0x3F];
+    }
+
+    /** Forme lisible d'un coup, pour l'API de rejeu */
+    public static String describe(byte move) {
+        return switch (type(move)) {
+            case ROLL -> {
+                StringBuilder text = new StringBuilder("ROLL");
+                int mask = lockMask(move);
+                for (int i = 0; i < 5; i++) {
+                    if ((mask & (1 << i)) != 0) {
+                        text.append(text.length() == 4 ? " keep " : ",").append(i);
+                    }
+                }
+                yield text.toString();
+            }
+            case SCORE -> "SCORE " + category(move);
+            default -> "PENALTY";
+        };
+    }
+
+    private void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, Math.max(32, size * 2));
+        }
+        moves[size++] = (byte) move;
+    }
+}
@@ -0,0 +1,318 @@
+package com.example.jee.examen.runtime;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+
+/**
+ * Enregistrements de taille fixe hors du tas, indexés par une clé long strictement positive. Les données
+ * sont dans des {@link ByteBuffer} directs alloués par blocs, l'index est une table à adressage ouvert en
+ * tableaux primitifs : le ramasse-miettes ne voit qu'une poignée d'objets quel que soit le nombre
+ * d'enregistrements. Les blocs ne sont jamais rendus, les emplacements libérés sont réutilisés.
+ * <p>
+ * Un seul écrivain par clé à la fois. Chaque emplacement porte sa clé et un compteur de séquence, impair
+ * pendant une écriture : une lecture concurrente d'une écriture ou d'une réattribution est recommencée.
+ * Insertions et suppressions prennent le verrou exclusif, les écritures de contenu le verrou partagé :
+ * un emplacement n'est jamais réattribué pendant qu'on y écrit.
+ */
+public class OffHeapSlab {
+
+    private static final VarHandle SEQUENCE =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final VarHandle KEY =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    /** En-tête d'un emplacement : clé (long), séquence (int), alignement sur 8 octets */
+    private static final int HEADER_BYTES = 16;
+    private static final int SEQUENCE_OFFSET = 8;
+
+    private final int recordBytes;
+    private final int slotBytes;
+    private final int slotsPerChunk;
+    private final StampedLock lock = new StampedLock();
+
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+    private volatile Index index = new Index(64);
+    /** Modifiés sous le verrou exclusif */
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    private int nextSlot;
+    private volatile int size;
+
+    public OffHeapSlab(int recordBytes, int slotsPerChunk) {
+        this.recordBytes = recordBytes;
+        this.slotBytes = (HEADER_BYTES + recordBytes + 7) & ~7;
+        this.slotsPerChunk = slotsPerChunk;
+    }
+
+    public int recordBytes() {
+        return recordBytes;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(long key) {
+        return slotOf(key) >= 0;
+    }
+
+    /** Mémoire directe réservée par les blocs */
+    public long offHeapBytes() {
+        return (long) chunks.length * slotsPerChunk * slotBytes;
+    }
+
+    /** Mémoire du tas occupée par l'index */
+    public long indexBytes() {
+        return (long) index.keys.length * (Long.BYTES + Integer.BYTES);
+    }
+
+    /**
+     * Lit l'enregistrement de {@code key} ; {@code decoder} reçoit une vue de l'emplacement et peut être
+     * rappelé si une écriture concurrente est détectée. Null si la clé est absente.
+     */
+    public <T> T read(long key, Function<ByteBuffer, T> decoder) {
+        while (true) {
+            int slot = slotOf(key);
+            if (slot < 0) {
+                return null;
+            }
+            ByteBuffer chunk = chunks[slot / slotsPerChunk];
+            int offset = (slot % slotsPerChunk) * slotBytes;
+            int before = (int) SEQUENCE.getAcquire(chunk, offset + SEQUENCE_OFFSET);
+            if ((before & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            T value;
+            try {
+                value = (long) KEY.getOpaque(chunk, offset) == key ? decoder.apply(payload(chunk, offset)) : null;
+            } catch (RuntimeException ex) {
+                // Contenu lu pendant une écriture : recommencer, sinon l'erreur est réelle
+                if ((int) SEQUENCE.getAcquire(chunk, offset + SEQUENCE_OFFSET) == before) {
+                    throw ex;
+                }
+                continue;
+            }
+            VarHandle.loadLoadFence();
+            if ((int) SEQUENCE.getOpaque(chunk, offset + SEQUENCE_OFFSET) == before && value != null) {
+                return value;
+            }
+        }
+    }
+
+    /** Réécrit l'enregistrement d'une clé présente ; false si elle est absente (rien n'est écrit) */
+    public boolean write(long key, Consumer<ByteBuffer> encoder) {
+        long stamp = lock.readLock();
+        try {
+            int slot = index.find(key);
+            if (slot < 0) {
+                return false;
+            }
+            writeSlot(slot, key, encoder);
+            return true;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** Insère ou réécrit l'enregistrement d'une clé */
+    public void put(long key, Consumer<ByteBuffer> encoder) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Clé invalide : " + key);
+        }
+        if (write(key, encoder)) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            int slot = index.find(key);
+            if (slot < 0) {
+                slot = allocateSlot();
+                Index current = index;
+                if ((size + 1) * 2 > current.keys.length) {
+                    current = current.resize(current.keys.length * 2);
+                    index = current;
+                }
+                current.insert(key, slot);
+                size++;
+            }
+            writeSlot(slot, key, encoder);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean remove(long key) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = index.remove(key);
+            if (slot < 0) {
+                return false;
+            }
+            ByteBuffer chunk = chunks[slot / slotsPerChunk];
+            int offset = (slot % slotsPerChunk) * slotBytes;
+            int sequence = (int) SEQUENCE.getOpaque(chunk, offset + SEQUENCE_OFFSET);
+            KEY.setOpaque(chunk, offset, 0L);
+            SEQUENCE.setRelease(chunk, offset + SEQUENCE_OFFSET, sequence + 2);
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+            size--;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Parcourt les clés présentes au moment de l'appel */
+    public void forEachKey(LongConsumer action) {
+        long[] keys;
+        int count = 0;
+        long stamp = lock.readLock();
+        try {
+            long[] table = index.keys;
+            keys = new long[size];
+            for (long key : table) {
+                if (key != 0 && count < keys.length) {
+                    keys[count++] = key;
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        for (int i = 0; i < count; i++) {
+            action.accept(keys[i]);
+        }
+    }
+
+    private int slotOf(long key) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            int slot = index.find(key);
+            if (lock.validate(stamp)) {
+                return slot;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return index.find(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void writeSlot(int slot, long key, Consumer<ByteBuffer> encoder) {
+        ByteBuffer chunk = chunks[slot / slotsPerChunk];
+        int offset = (slot % slotsPerChunk) * slotBytes;
+        int sequence = (int) SEQUENCE.getOpaque(chunk, offset + SEQUENCE_OFFSET);
+        SEQUENCE.setOpaque(chunk, offset + SEQUENCE_OFFSET, sequence + 1);
+        VarHandle.storeStoreFence();
+        KEY.setOpaque(chunk, offset, key);
+        encoder.accept(payload(chunk, offset));
+        SEQUENCE.setRelease(chunk, offset + SEQUENCE_OFFSET, sequence + 2);
+    }
+
+    private ByteBuffer payload(ByteBuffer chunk, int offset) {
+        return chunk.slice(offset + HEADER_BYTES, recordBytes);
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        int slot = nextSlot++;
+        if (slot / slotsPerChunk == chunks.length) {
+            ByteBuffer[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+            grown[chunks.length] = ByteBuffer.allocateDirect(slotsPerChunk * slotBytes);
+            chunks = grown;
+        }
+        return slot;
+    }
+
+    /**
+     * Table à adressage ouvert (sondage linéaire, suppression par décalage arrière). Les lectures
+     * optimistes peuvent y voir un état intermédiaire : elles sont validées par le verrou.
+     */
+    private static final class Index {
+        private final long[] keys;
+        private final int[] slots;
+        private final int mask;
+
+        private Index(int capacity) {
+            this.keys = new long[capacity];
+            this.slots = new int[capacity];
+            this.mask = capacity - 1;
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+
+        int find(long key) {
+            int i = hash(key) & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                long current = keys[i];
+                if (current == key) {
+                    return slots[i];
+                }
+                if (current == 0) {
+                    return -1;
+                }
+                i = (i + 1) & mask;
+            }
+            return -1;
+        }
+
+        void insert(long key, int slot) {
+            int i = hash(key) & mask;
+            while (keys[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            slots[i] = slot;
+            keys[i] = key;
+        }
+
+        int remove(long key) {
+            int i = hash(key) & mask;
+            while (keys[i] != key) {
+                if (keys[i] == 0) {
+                    return -1;
+                }
+                i = (i + 1) & mask;
+            }
+            int slot = slots[i];
+            // Décalage arrière : les entrées suivantes du même groupe remontent pour ne pas casser le sondage
+            int hole = i;
+            int j = (i + 1) & mask;
+            while (keys[j] != 0) {
+                int home = hash(keys[j]) & mask;
+                if (((j - home) & mask) >= ((j - hole) & mask)) {
+                    keys[hole] = keys[j];
+                    slots[hole] = slots[j];
+                    hole = j;
+                }
+                j = (j + 1) & mask;
+            }
+            keys[hole] = 0;
+            return slot;
+        }
+
+        Index resize(int capacity) {
+            Index resized = new Index(capacity);
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    resized.insert(keys[i], slots[i]);
+                }
+            }
+            return resized;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.jee.examen.runtime;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * File de commandes exécutées une par une, dans l'ordre d'arrivée, sur un pool partagé : au plus un
+ * thread du pool traite la file à un instant donné. Sans verrou : le compteur de tâches en attente
+ * décide qui soumet la file au pool. Après {@link #BATCH_SIZE} commandes la file rend la main pour
+ * ne pas monopoliser un thread au détriment des autres files.
+ */
+@Slf4j
+public class SerialMailbox implements Runnable {
+
+    private static final int BATCH_SIZE = 32;
+
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Executor executor;
+
+    public SerialMailbox(Executor executor) {
+        this.executor = executor;
+    }
+
+    public void execute(Runnable command) {
+        commands.add(command);
+        if (pending.getAndIncrement() == 0) {
+            executor.execute(this);
+        }
+    }
+
+    @Override
+    public void run() {
+        int processed = 0;
+        do {
+            Runnable command = commands.poll();
+            try {
+                command.run();
+            } catch (RuntimeException ex) {
+                log.error("Commande en échec", ex);
+            }
+            if (pending.decrementAndGet() == 0) {
+                return;
+            }
+        } while (++processed < BATCH_SIZE);
+        executor.execute(this);
+    }
+}
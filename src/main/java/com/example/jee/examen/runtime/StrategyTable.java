@@ -0,0 +1,378 @@
+package com.example.jee.examen.runtime;
+
+import com.example.jee.examen.enums.Category;
+import com.example.jee.examen.service.ScoreService;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Stratégie optimale solo (maximisation de l'espérance du score final) pour les règles de
+ * {@link ScoreService} : bonus de 35 à 63 points dans la partie haute, +100 par Yam supplémentaire
+ * une fois la case YAM remplie.
+ * <p>
+ * L'état entre deux tours est (catégories remplies, sous-total haut plafonné à 63) : la table contient
+ * l'espérance des points restant à marquer depuis chaque état, indexée par {@code mask << 6 | upper}
+ * (8192 × 64 floats, 2 Mo). À l'intérieur d'un tour, les décisions (dés à garder, catégorie) se
+ * recalculent en quelques microsecondes à partir de la table.
+ */
+public final class StrategyTable {
+
+    public static final int UPPER_CAP = 63;
+    public static final int STATE_COUNT = (ScoreService.ALL_FILLED_MASK + 1) << 6;
+
+    private static final int UPPER_BONUS = 35;
+    private static final int EXTRA_YAM_BONUS = 100;
+    private static final int FACES = 6;
+    private static final int MULTISETS = ScoreService.MULTISET_COUNT;
+    private static final Category[] CATEGORIES = Category.values();
+    private static final int YAM_BIT = 1 << Category.YAM.ordinal();
+    private static final int UPPER_CATEGORIES = 6;
+    /** La première combinaison énumérée est celle où aucun dé n'est gardé */
+    private static final int KEEP_EMPTY = 0;
+
+    /** Toutes les combinaisons de 0 à 5 dés gardés (462), sous forme de comptes par face */
+    private static final int[][] KEEP_COUNTS;
+    /** Résultats possibles après relance des dés non gardés : multiset (index ScoreService) et probabilité */
+    private static final int[] OUTCOME_START;
+    private static final int[] OUTCOME_MULTISET;
+    private static final double[] OUTCOME_PROBABILITY;
+    /** Combinaisons gardables (distinctes) pour chaque multiset de 5 dés */
+    private static final int[] SUBKEEP_START;
+    private static final int[] SUBKEEPS;
+    /** Index de la combinaison "tout garder" pour chaque multiset */
+    private static final int[] KEEP_ALL;
+    /** Faces triées de chaque multiset */
+    private static final int[][] MULTISET_DICE = new int[MULTISETS][];
+    private static final boolean[] IS_YAM = new boolean[MULTISETS];
+    /** Sous-totaux hauts atteignables pour chaque sous-ensemble de catégories hautes remplies */
+    private static final long[] REACHABLE_UPPER = new long[1 << UPPER_CATEGORIES];
+
+    private static final ThreadLocal<Workspace> WORKSPACE = ThreadLocal.withInitial(Workspace::new);
+
+    static {
+        List<int[]> keeps = new ArrayList<>();
+        Map<Integer, Integer> keepByKey = new HashMap<>();
+        enumerateKeeps(new int[FACES + 1], 1, 0, keeps, keepByKey);
+        KEEP_COUNTS = keeps.toArray(new int[0][]);
+
+        OUTCOME_START = new int[KEEP_COUNTS.length + 1];
+        List<Integer> outcomeMultisets = new ArrayList<>();
+        List<Double> outcomeProbabilities = new ArrayList<>();
+        for (int k = 0; k < KEEP_COUNTS.length; k++) {
+            OUTCOME_START[k] = outcomeMultisets.size();
+            double[] probabilities = rerollOutcomes(KEEP_COUNTS[k]);
+            for (int m = 0; m < MULTISETS; m++) {
+                if (probabilities[m] > 0) {
+                    outcomeMultisets.add(m);
+                    outcomeProbabilities.add(probabilities[m]);
+                }
+            }
+        }
+        OUTCOME_START[KEEP_COUNTS.length] = outcomeMultisets.size();
+        OUTCOME_MULTISET = outcomeMultisets.stream().mapToInt(Integer::intValue).toArray();
+        OUTCOME_PROBABILITY = outcomeProbabilities.stream().mapToDouble(Double::doubleValue).toArray();
+
+        // Les multisets de 5 dés sont les issues de la relance complète (aucun dé gardé)
+        for (int[] counts : KEEP_COUNTS) {
+            if (size(counts) == ScoreService.DICE_COUNT) {
+                int[] dice = toDice(counts);
+                int m = ScoreService.multisetIndex(dice);
+                MULTISET_DICE[m] = dice;
+                IS_YAM[m] = ScoreService.tableScore(m, Category.YAM) == 50;
+            }
+        }
+        SUBKEEP_START = new int[MULTISETS + 1];
+        KEEP_ALL = new int[MULTISETS];
+        List<Integer> subkeeps = new ArrayList<>();
+        for (int m = 0; m < MULTISETS; m++) {
+            SUBKEEP_START[m] = subkeeps.size();
+            Set<Integer> distinct = new LinkedHashSet<>();
+            int[] dice = MULTISET_DICE[m];
+            for (int subset = 0; subset < 1 << ScoreService.DICE_COUNT; subset++) {
+                int[] counts = new int[FACES + 1];
+                for (int i = 0; i < ScoreService.DICE_COUNT; i++) {
+                    if ((subset & (1 << i)) != 0) {
+                        counts[dice[i]]++;
+                    }
+                }
+                distinct.add(keepByKey.get(key(counts)));
+            }
+            subkeeps.addAll(distinct);
+            KEEP_ALL[m] = keepByKey.get(key(counts(dice)));
+        }
+        SUBKEEP_START[MULTISETS] = subkeeps.size();
+        SUBKEEPS = subkeeps.stream().mapToInt(Integer::intValue).toArray();
+
+        for (int upperMask = 0; upperMask < REACHABLE_UPPER.length; upperMask++) {
+            long reachable = 1L;
+            for (int face = 1; face <= UPPER_CATEGORIES; face++) {
+                if ((upperMask & (1 << (face - 1))) == 0) {
+                    continue;
+                }
+                long next = 0L;
+                for (int upper = 0; upper <= UPPER_CAP; upper++) {
+                    if ((reachable & (1L << upper)) != 0) {
+                        for (int count = 0; count <= ScoreService.DICE_COUNT; count++) {
+                            next |= 1L << Math.min(UPPER_CAP, upper + count * face);
+                        }
+                    }
+                }
+                reachable = next;
+            }
+            REACHABLE_UPPER[upperMask] = reachable;
+        }
+    }
+
+    private final FloatBuffer values;
+
+    public StrategyTable(FloatBuffer values) {
+        if (values.capacity() != STATE_COUNT) {
+            throw new IllegalArgumentException("Table de stratégie de taille inattendue : " + values.capacity());
+        }
+        this.values = values;
+    }
+
+    /**
+     * Calcule la table complète, niveau par niveau (nombre de catégories remplies décroissant) :
+     * les états d'un même niveau ne dépendent que du niveau suivant et sont évalués en parallèle.
+     */
+    public static float[] compute() {
+        float[] table = new float[STATE_COUNT];
+        StrategyTable view = new StrategyTable(FloatBuffer.wrap(table));
+        for (int filled = CATEGORIES.length - 1; filled >= 0; filled--) {
+            int level = filled;
+            IntStream.range(0, ScoreService.ALL_FILLED_MASK + 1)
+                    .filter(mask -> Integer.bitCount(mask) == level)
+                    .parallel()
+                    .forEach(mask -> {
+                        for (int upper = 0; upper <= UPPER_CAP; upper++) {
+                            if (isReachable(mask, upper)) {
+                                table[mask << 6 | upper] = (float) view.evaluateState(mask, upper);
+                            }
+                        }
+                    });
+        }
+        return table;
+    }
+
+    public static int stateIndex(int mask, int upper) {
+        return mask << 6 | Math.min(upper, UPPER_CAP);
+    }
+
+    public static boolean isReachable(int mask, int upper) {
+        return (REACHABLE_UPPER[mask & ((1 << UPPER_CATEGORIES) - 1)] & (1L << upper)) != 0;
+    }
+
+    /** Espérance des points restant à marquer en début de tour */
+    public double expectedRemaining(int mask, int upper) {
+        return mask == ScoreService.ALL_FILLED_MASK ? 0 : values.get(stateIndex(mask, upper));
+    }
+
+    /** Évalue un état de début de tour à partir des valeurs des états suivants */
+    public double evaluateState(int mask, int upper) {
+        if (mask == ScoreService.ALL_FILLED_MASK) {
+            return 0;
+        }
+        Workspace ws = WORKSPACE.get();
+        scoreLayer(mask, upper, ws.afterThird);
+        rollLayer(ws.afterThird, ws.keepValues, ws.afterSecond);
+        rollLayer(ws.afterSecond, ws.keepValues, ws.afterFirst);
+        return keepValue(KEEP_EMPTY, ws.afterFirst);
+    }
+
+    /**
+     * Meilleur coup pour des dés lancés {@code rollCount} fois (1 à 3). Avec 3 lancers, ou quand
+     * garder tous les dés est optimal, le coup est une catégorie à marquer ; sinon les dés à garder.
+     */
+    public Move bestMove(int[] dice, int rollCount, int mask, int upper) {
+        int m = ScoreService.multisetIndex(dice);
+        if (m < 0 || rollCount < 1 || mask == ScoreService.ALL_FILLED_MASK) {
+            throw new IllegalArgumentException("Dés non lancés ou feuille complète");
+        }
+        upper = Math.min(upper, UPPER_CAP);
+        Workspace ws = WORKSPACE.get();
+        double[] afterThird = ws.afterThird;
+        scoreLayer(mask, upper, afterThird);
+        if (rollCount >= 3) {
+            return scoreMove(m, mask, upper, afterThird[m]);
+        }
+        double[] next = afterThird;
+        if (rollCount == 1) {
+            rollLayer(afterThird, ws.keepValues, ws.afterSecond);
+            next = ws.afterSecond;
+        }
+        int bestKeep = KEEP_ALL[m];
+        double best = next[m];
+        for (int i = SUBKEEP_START[m]; i < SUBKEEP_START[m + 1]; i++) {
+            int keep = SUBKEEPS[i];
+            double value = keepValue(keep, next);
+            if (value > best + 1e-9) {
+                best = value;
+                bestKeep = keep;
+            }
+        }
+        if (bestKeep == KEEP_ALL[m]) {
+            return scoreMove(m, mask, upper, best);
+        }
+        return new Move(null, keepIndexes(dice, KEEP_COUNTS[bestKeep]), best);
+    }
+
+    /** Coup conseillé : catégorie à marquer, ou index des dés à garder avant de relancer */
+    public record Move(Category category, int[] keepIndexes, double expectedRemaining) {
+    }
+
+    private Move scoreMove(int m, int mask, int upper, double expected) {
+        Category best = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (Category category : CATEGORIES) {
+            if ((mask & (1 << category.ordinal())) == 0) {
+                double value = scoreValue(m, category, mask, upper);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = category;
+                }
+            }
+        }
+        return new Move(best, null, expected);
+    }
+
+    /** Meilleure valeur (points immédiats + espérance de la suite) après le dernier lancer, pour chaque multiset */
+    private void scoreLayer(int mask, int upper, double[] out) {
+        for (int m = 0; m < MULTISETS; m++) {
+            double best = Double.NEGATIVE_INFINITY;
+            for (Category category : CATEGORIES) {
+                if ((mask & (1 << category.ordinal())) == 0) {
+                    best = Math.max(best, scoreValue(m, category, mask, upper));
+                }
+            }
+            out[m] = best;
+        }
+    }
+
+    private double scoreValue(int m, Category category, int mask, int upper) {
+        int points = ScoreService.tableScore(m, category);
+        int nextUpper = upper;
+        if (category.ordinal() < UPPER_CATEGORIES) {
+            nextUpper = Math.min(UPPER_CAP, upper + points);
+            if (upper < UPPER_CAP && upper + points >= UPPER_CAP) {
+                points += UPPER_BONUS;
+            }
+        }
+        if (IS_YAM[m] && (mask & YAM_BIT) != 0) {
+            points += EXTRA_YAM_BONUS;
+        }
+        return points + expectedRemaining(mask | (1 << category.ordinal()), nextUpper);
+    }
+
+    /** Valeur de chaque multiset avant une relance : meilleure combinaison de dés à garder */
+    private static void rollLayer(double[] next, double[] keepValues, double[] out) {
+        for (int k = 0; k < KEEP_COUNTS.length; k++) {
+            keepValues[k] = keepValue(k, next);
+        }
+        for (int m = 0; m < MULTISETS; m++) {
+            double best = Double.NEGATIVE_INFINITY;
+            for (int i = SUBKEEP_START[m]; i < SUBKEEP_START[m + 1]; i++) {
+                best = Math.max(best, keepValues[SUBKEEPS[i]]);
+            }
+            out[m] = best;
+        }
+    }
+
+    private static double keepValue(int keep, double[] next) {
+        double sum = 0;
+        for (int i = OUTCOME_START[keep]; i < OUTCOME_START[keep + 1]; i++) {
+            sum += OUTCOME_PROBABILITY[i] * next[OUTCOME_MULTISET[i]];
+        }
+        return sum;
+    }
+
+    private static int[] keepIndexes(int[] dice, int[] keepCounts) {
+        int[] remaining = keepCounts.clone();
+        int[] indexes = new int[size(keepCounts)];
+        int n = 0;
+        for (int i = 0; i < dice.length; i++) {
+            if (remaining[dice[i]] > 0) {
+                remaining[dice[i]]--;
+                indexes[n++] = i;
+            }
+        }
+        return indexes;
+    }
+
+    private static void enumerateKeeps(int[] counts, int face, int size, List<int[]> keeps, Map<Integer, Integer> keepByKey) {
+        if (face > FACES) {
+            keepByKey.put(key(counts), keeps.size());
+            keeps.add(counts.clone());
+            return;
+        }
+        for (int count = 0; size + count <= ScoreService.DICE_COUNT; count++) {
+            counts[face] = count;
+            enumerateKeeps(counts, face + 1, size + count, keeps, keepByKey);
+        }
+        counts[face] = 0;
+    }
+
+    private static double[] rerollOutcomes(int[] keepCounts) {
+        int rerolled = ScoreService.DICE_COUNT - size(keepCounts);
+        int combinations = (int) Math.pow(FACES, rerolled);
+        double[] probabilities = new double[MULTISETS];
+        int[] dice = new int[ScoreService.DICE_COUNT];
+        int[] kept = toDice(keepCounts);
+        System.arraycopy(kept, 0, dice, 0, kept.length);
+        for (int roll = 0; roll < combinations; roll++) {
+            int rest = roll;
+            for (int i = kept.length; i < ScoreService.DICE_COUNT; i++) {
+                dice[i] = rest % FACES + 1;
+                rest /= FACES;
+            }
+            probabilities[ScoreService.multisetIndex(dice)] += 1.0 / combinations;
+        }
+        return probabilities;
+    }
+
+    private static int[] toDice(int[] counts) {
+        int[] dice = new int[size(counts)];
+        int n = 0;
+        for (int face = 1; face <= FACES; face++) {
+            for (int c = 0; c < counts[face]; c++) {
+                dice[n++] = face;
+            }
+        }
+        return dice;
+    }
+
+    private static int[] counts(int[] dice) {
+        int[] counts = new int[FACES + 1];
+        for (int die : dice) {
+            counts[die]++;
+        }
+        return counts;
+    }
+
+    private static int size(int[] counts) {
+        return Arrays.stream(counts).sum();
+    }
+
+    private static int key(int[] counts) {
+        int key = 0;
+        for (int face = 1; face <= FACES; face++) {
+            key = key * FACES + counts[face];
+        }
+        return key;
+    }
+
+    private static final class Workspace {
+        private final double[] afterThird = new double[MULTISETS];
+        private final double[] afterSecond = new double[MULTISETS];
+        private final double[] afterFirst = new double[MULTISETS];
+        private final double[] keepValues = new double[KEEP_COUNTS.length];
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.jee.examen.runtime;
+
+/** Publié quand un joueur reçoit la main (début de partie ou changement de tour) */
+public record TurnStartedEvent(Long gameId, Long playerId) {
+}
@@ -7,6 +7,7 @@ import com.example.jee.examen.repository.JoueurRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
@@ -21,8 +22,12 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final JoueurCache joueurCache;
 
     public void register(AuthRegisterRequest request) {
+        if (request.getPseudo().toLowerCase().startsWith(BotService.PSEUDO_PREFIX)) {
+            throw new ResponseStatusException(BAD_REQUEST, "Le préfixe " + BotService.PSEUDO_PREFIX + " est réservé aux bots");
+        }
         if (joueurRepository.existsByPseudo(request.getPseudo())) {
             throw new ResponseStatusException(BAD_REQUEST, "Pseudo déjà utilisé");
         }
@@ -32,12 +37,14 @@ public class AuthService {
                 .mdp(passwordEncoder.encode(request.getPassword()))
                 .build();
         joueurRepository.save(joueur);
+        joueurCache.evict(joueur.getPseudo());
     }
 
     public String login(AuthLoginRequest request) {
-        authenticationManager.authenticate(
+        Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getPseudo(), request.getPassword())
         );
-        return jwtService.generateToken(request.getPseudo());
+        AuthenticatedPlayer player = (AuthenticatedPlayer) authentication.getPrincipal();
+        return jwtService.generateToken(player.getPseudo(), player.getId());
     }
 }
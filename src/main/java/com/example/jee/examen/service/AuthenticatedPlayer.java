@@ -0,0 +1,40 @@
+package com.example.jee.examen.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal Spring Security portant l'id du joueur : construit depuis les claims du JWT,
+ * il évite toute requête en base pour identifier l'appelant.
+ */
+@Getter
+@AllArgsConstructor
+public class AuthenticatedPlayer implements UserDetails {
+
+    private static final List<GrantedAuthority> AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+
+    private final Long id;
+    private final String pseudo;
+    /** Hash du mot de passe, uniquement renseigné pour l'authentification par login */
+    private final String password;
+
+    public AuthenticatedPlayer(Long id, String pseudo) {
+        this(id, pseudo, null);
+    }
+
+    @Override
+    public String getUsername() {
+        return pseudo;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return AUTHORITIES;
+    }
+}
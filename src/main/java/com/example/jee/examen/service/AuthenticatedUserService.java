@@ -1,7 +1,6 @@
 package com.example.jee.examen.service;
 
 import com.example.jee.examen.entity.Joueur;
-import com.example.jee.examen.repository.JoueurRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -14,15 +13,28 @@ import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 @RequiredArgsConstructor
 public class AuthenticatedUserService {
 
-    private final JoueurRepository joueurRepository;
+    private final JoueurCache joueurCache;
+
+    /** Id du joueur courant, lu dans le principal issu du JWT (sans accès base) */
+    public Long currentPlayerId() {
+        Authentication auth = currentAuthentication();
+        if (auth.getPrincipal() instanceof AuthenticatedPlayer player && player.getId() != null) {
+            return player.getId();
+        }
+        return currentUser().getId();
+    }
 
     public Joueur currentUser() {
+        Authentication auth = currentAuthentication();
+        return joueurCache.findByPseudo(auth.getName())
+                .orElseThrow(() -> new ResponseStatusException(UNAUTHORIZED, "Utilisateur introuvable"));
+    }
+
+    private Authentication currentAuthentication() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null || auth.getName() == null) {
             throw new ResponseStatusException(UNAUTHORIZED, "Utilisateur non authentifié");
         }
-
-        return joueurRepository.findByPseudo(auth.getName())
-                .orElseThrow(() -> new ResponseStatusException(UNAUTHORIZED, "Utilisateur introuvable"));
+        return auth;
     }
 }
@@ -0,0 +1,152 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.dto.RollResponse;
+import com.example.jee.examen.entity.ColonneScore;
+import com.example.jee.examen.entity.Joueur;
+import com.example.jee.examen.enums.Category;
+import com.example.jee.examen.enums.RuntimeGameStatus;
+import com.example.jee.examen.repository.JoueurRepository;
+import com.example.jee.examen.runtime.GameState;
+import com.example.jee.examen.runtime.TurnStartedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Joueurs bots exécutés dans le serveur : un compte par {@link BotStrategy}, reconnu à sa colonne
+ * {@code bot_strategy} et non à son pseudo {@code bot-<stratégie>} (préfixe refusé à l'inscription).
+ * Quand un bot reçoit la main, son tour complet est déposé dans la file de commandes de la partie
+ * et joue directement sur {@link GameService}, sans passer par HTTP.
+ */
+@Slf4j
+@Service
+public class BotService {
+
+    public static final String PSEUDO_PREFIX = "bot-";
+
+    private final GameService gameService;
+    private final GameStateManager gameStateManager;
+    private final GameCommandExecutor gameCommands;
+    private final JoueurRepository joueurRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final List<BotStrategy> strategies;
+    private final String lobbyStrategy;
+
+    private final Map<Long, BotStrategy> strategyByPlayerId = new HashMap<>();
+    private final Map<String, Long> playerIdByStrategy = new HashMap<>();
+
+    public BotService(GameService gameService,
+                      GameStateManager gameStateManager,
+                      GameCommandExecutor gameCommands,
+                      JoueurRepository joueurRepository,
+                      PasswordEncoder passwordEncoder,
+                      List<BotStrategy> strategies,
+                      @Value("${app.bots.lobby-strategy:ev}") String lobbyStrategy) {
+        this.gameService = gameService;
+        this.gameStateManager = gameStateManager;
+        this.gameCommands = gameCommands;
+        this.joueurRepository = joueurRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.strategies = strategies;
+        this.lobbyStrategy = lobbyStrategy;
+    }
+
+    @PostConstruct
+    void registerBots() {
+        for (BotStrategy strategy : strategies) {
+            Joueur bot = joueurRepository.findByBotStrategy(strategy.name()).orElseGet(() -> createBot(strategy));
+            strategyByPlayerId.put(bot.getId(), strategy);
+            playerIdByStrategy.put(strategy.name(), bot.getId());
+        }
+    }
+
+    /**
+     * Un compte existant au pseudo {@code bot-<stratégie>} sans stratégie enregistrée appartient à quelqu'un
+     * d'autre : il n'est jamais repris, le bot prend le premier pseudo suffixé libre
+     */
+    private Joueur createBot(BotStrategy strategy) {
+        String pseudo = PSEUDO_PREFIX + strategy.name();
+        if (joueurRepository.existsByPseudo(pseudo)) {
+            int suffix = 2;
+            while (joueurRepository.existsByPseudo(pseudo + "-" + suffix)) {
+                suffix++;
+            }
+            log.warn("Pseudo {} déjà pris par un compte qui n'est pas un bot, le bot prend {}-{}", pseudo, pseudo, suffix);
+            pseudo = pseudo + "-" + suffix;
+        }
+        // Mot de passe aléatoire jamais communiqué : un compte bot ne peut pas se connecter
+        return joueurRepository.save(Joueur.builder()
+                .pseudo(pseudo)
+                .mdp(passwordEncoder.encode(UUID.randomUUID().toString()))
+                .botStrategy(strategy.name())
+                .build());
+    }
+
+    public boolean isBot(Long playerId) {
+        return strategyByPlayerId.containsKey(playerId);
+    }
+
+    public Long botPlayerId(String strategyName) {
+        Long playerId = playerIdByStrategy.get(strategyName);
+        if (playerId == null) {
+            throw new IllegalArgumentException("Stratégie de bot inconnue : " + strategyName);
+        }
+        return playerId;
+    }
+
+    /** Adversaire proposé aux joueurs qui attendent trop longtemps dans le lobby */
+    public Long lobbyOpponent() {
+        return botPlayerId(lobbyStrategy);
+    }
+
+    /** Après le commit : le tour du bot s'exécute une fois l'état de la partie enregistré */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTurnStarted(TurnStartedEvent event) {
+        BotStrategy strategy = strategyByPlayerId.get(event.playerId());
+        if (strategy != null) {
+            gameCommands.execute(event.gameId(), () -> playTurn(event.gameId(), event.playerId(), strategy));
+        }
+    }
+
+    private void playTurn(Long gameId, Long botId, BotStrategy strategy) {
+        GameState state = gameStateManager.get(gameId).orElse(null);
+        if (state == null || state.getStatus() == RuntimeGameStatus.FINISHED
+                || state.getCurrentPlayerId() != botId || state.getRollCount() > 0) {
+            return;
+        }
+        try {
+            RollResponse roll = gameService.roll(gameId, botId);
+            while (roll.getRollCount() > 0) {
+                ColonneScore sheet = sheetOf(state, botId);
+                BotStrategy.Move move = strategy.nextMove(roll, sheet);
+                if (move.category() != null || roll.getRollsLeft() == 0) {
+                    Category category = move.category() != null
+                            ? move.category()
+                            : GreedyBotStrategy.bestImmediate(roll.getPossibleScores());
+                    gameService.score(gameId, botId, category);
+                    return;
+                }
+                roll = gameService.lockAndRoll(gameId, botId, move.keepIndexes());
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Tour du bot {} en échec dans la partie {}", strategy.name(), gameId, ex);
+        }
+    }
+
+    private ColonneScore sheetOf(GameState state, Long playerId) {
+        for (ColonneScore sheet : state.getSheets()) {
+            if (sheet.getIdJoueur().equals(playerId)) {
+                return sheet;
+            }
+        }
+        throw new IllegalStateException("Feuille du bot introuvable");
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.enums.PartieStatus;
+import com.example.jee.examen.runtime.GameFinishedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Banc d'endurance (profil {@code soak}) : maintient {@code app.soak.games} parties bot contre bot en
+ * parallèle pendant {@code app.soak.duration}, chaque partie terminée étant aussitôt remplacée.
+ * Le débit est journalisé périodiquement ; les métriques yam.* restent consultables via l'actuator.
+ */
+@Slf4j
+@Component
+@Profile("soak")
+public class BotSoakHarness {
+
+    private final GameService gameService;
+    private final ObjectProvider<ReplayCheckRunner> replayCheck;
+    private final Long firstBotId;
+    private final Long secondBotId;
+    private final int concurrentGames;
+    private final long durationMs;
+
+    private final Set<Long> runningGames = ConcurrentHashMap.newKeySet();
+    private final AtomicLong finishedGames = new AtomicLong();
+    private final AtomicLong abandonedGames = new AtomicLong();
+    private volatile long startedAt;
+    private volatile boolean running;
+
+    public BotSoakHarness(GameService gameService,
+                          BotService botService,
+                          ObjectProvider<ReplayCheckRunner> replayCheck,
+                          @Value("${app.soak.first-bot:greedy}") String firstBot,
+                          @Value("${app.soak.second-bot:ev}") String secondBot,
+                          @Value("${app.soak.games:1000}") int concurrentGames,
+                          @Value("${app.soak.duration:5m}") Duration duration) {
+        this.gameService = gameService;
+        this.replayCheck = replayCheck;
+        this.firstBotId = botService.botPlayerId(firstBot);
+        this.secondBotId = botService.botPlayerId(secondBot);
+        this.concurrentGames = concurrentGames;
+        this.durationMs = duration.toMillis();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        startedAt = System.currentTimeMillis();
+        running = true;
+        log.info("Banc d'endurance : {} parties simultanées pendant {} s", concurrentGames, durationMs / 1000);
+        for (int i = 0; i < concurrentGames; i++) {
+            startGame();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGameFinished(GameFinishedEvent event) {
+        if (!runningGames.remove(event.gameId())) {
+            return;
+        }
+        (event.status() == PartieStatus.TERMINE ? finishedGames : abandonedGames).incrementAndGet();
+        if (running && System.currentTimeMillis() - startedAt < durationMs) {
+            // Hors du callback de commit : une transaction ne peut plus y être ouverte
+            CompletableFuture.runAsync(this::startGame);
+        } else if (running && runningGames.isEmpty()) {
+            running = false;
+            report("Banc d'endurance terminé");
+            replayCheck.ifAvailable(check -> CompletableFuture.runAsync(check::run));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.soak.report-interval-ms:10000}")
+    public void reportProgress() {
+        if (running) {
+            report("Banc d'endurance");
+        }
+    }
+
+    private void startGame() {
+        try {
+            runningGames.add(gameService.createGame(firstBotId, secondBotId));
+        } catch (RuntimeException ex) {
+            log.warn("Création de partie impossible pendant le banc d'endurance", ex);
+        }
+    }
+
+    private void report(String label) {
+        double seconds = Math.max(1, System.currentTimeMillis() - startedAt) / 1000.0;
+        long finished = finishedGames.get();
+        log.info("{} : {} parties terminées ({} /s), {} abandonnées, {} en cours",
+                label, finished, String.format("%.1f", finished / seconds), abandonedGames.get(), runningGames.size());
+    }
+}
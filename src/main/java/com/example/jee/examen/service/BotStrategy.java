@@ -0,0 +1,28 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.dto.RollResponse;
+import com.example.jee.examen.entity.ColonneScore;
+import com.example.jee.examen.enums.Category;
+
+import java.util.List;
+
+/** Politique de jeu d'un bot : décide, après chaque lancer, de marquer ou de relancer */
+public interface BotStrategy {
+
+    /** Nom court, utilisé dans le pseudo du compte bot ({@code bot-<nom>}) */
+    String name();
+
+    Move nextMove(RollResponse roll, ColonneScore sheet);
+
+    /** Catégorie à marquer, ou index des dés à garder avant la relance suivante */
+    record Move(Category category, List<Integer> keepIndexes) {
+
+        public static Move score(Category category) {
+            return new Move(category, null);
+        }
+
+        public static Move keep(List<Integer> keepIndexes) {
+            return new Move(null, keepIndexes);
+        }
+    }
+}
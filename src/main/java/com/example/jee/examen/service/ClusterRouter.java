@@ -0,0 +1,210 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.dto.StartGameRequest;
+import com.example.jee.examen.runtime.HashRing;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+/**
+ * Répartition des parties entre serveurs : chaque partie appartient à un seul serveur, choisi par
+ * hachage cohérent de son id ({@link HashRing}) sur la liste {@code app.cluster.nodes}. Le propriétaire
+ * garde l'état en mémoire et traite toutes les commandes de la partie ; les autres serveurs lui transmettent
+ * les requêtes {@code /games/{id}/...} ({@link com.example.jee.examen.config.GameRoutingFilter}).
+ * <p>
+ * Sans liste de serveurs, toutes les parties sont locales.
+ */
+@Component
+public class ClusterRouter {
+
+    public static final String SECRET_HEADER = "X-Yam-Cluster-Secret";
+    /** Requête relayée : instant d'envoi et signature HMAC-SHA256 du saut, avec le secret du cluster */
+    public static final String HOP_TIMESTAMP_HEADER = "X-Yam-Forwarded-At";
+    public static final String HOP_SIGNATURE_HEADER = "X-Yam-Forwarded-Signature";
+    private static final long HOP_MAX_AGE_MS = 60_000L;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(2);
+    private static final Duration START_TIMEOUT = Duration.ofSeconds(10);
+
+    private final GameService gameService;
+    private final ObjectMapper objectMapper;
+    private final HashRing ring;
+    private final String self;
+    private final boolean redirect;
+    private final byte[] secret;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(CONNECT_TIMEOUT)
+            .build();
+
+    public ClusterRouter(GameService gameService,
+                         ObjectMapper objectMapper,
+                         @Value("${app.cluster.nodes:}") List<String> nodes,
+                         @Value("${app.cluster.self:}") String self,
+                         @Value("${app.cluster.routing:forward}") String routing,
+                         @Value("${app.cluster.secret:}") String secret,
+                         @Value("${app.cluster.virtual-nodes:128}") int virtualNodes,
+                         @Value("${app.lobby.store:memory}") String lobbyStore) {
+        this.gameService = gameService;
+        this.objectMapper = objectMapper;
+        List<String> normalized = nodes.stream().map(ClusterRouter::normalize).filter(node -> !node.isEmpty()).toList();
+        this.self = normalize(self);
+        this.redirect = "redirect".equalsIgnoreCase(routing);
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        if (normalized.isEmpty()) {
+            this.ring = null;
+            return;
+        }
+        if (!normalized.contains(this.self)) {
+            throw new IllegalStateException("app.cluster.self doit figurer dans app.cluster.nodes : " + this.self);
+        }
+        if (secret.isBlank()) {
+            throw new IllegalStateException("app.cluster.secret est requis avec app.cluster.nodes");
+        }
+        if (!"jdbc".equals(lobbyStore)) {
+            throw new IllegalStateException("app.cluster.nodes exige la file partagée app.lobby.store=jdbc");
+        }
+        this.ring = new HashRing(normalized, virtualNodes);
+    }
+
+    public boolean enabled() {
+        return ring != null;
+    }
+
+    public String self() {
+        return self;
+    }
+
+    /** Répondre 307 vers le propriétaire au lieu de lui transmettre la requête */
+    public boolean redirects() {
+        return redirect;
+    }
+
+    public HttpClient httpClient() {
+        return httpClient;
+    }
+
+    public String ownerOf(Long gameId) {
+        return ring == null ? self : ring.ownerOf(gameId);
+    }
+
+    public boolean isLocal(Long gameId) {
+        return ring == null || self.equals(ring.ownerOf(gameId));
+    }
+
+    public boolean acceptsSecret(String candidate) {
+        return candidate != null && secret.length > 0
+                && MessageDigest.isEqual(secret, candidate.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Signature d'une requête relayée par {@code forwardedBy} : méthode, chemin avec paramètres et instant */
+    public String signHop(String forwardedBy, String method, String target, long timestamp) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            byte[] signature = mac.doFinal((forwardedBy + "\n" + method + "\n" + target + "\n" + timestamp)
+                    .getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Vrai si la requête a été relayée par un serveur du cluster : signature valide et récente. Un client ne
+     * peut donc pas faire traiter une partie par un serveur qui n'en est pas propriétaire.
+     */
+    public boolean acceptsHop(String forwardedBy, String method, String target, String timestamp, String signature) {
+        if (ring == null || forwardedBy == null || timestamp == null || signature == null
+                || !ring.nodes().contains(forwardedBy)) {
+            return false;
+        }
+        long sentAt;
+        try {
+            sentAt = Long.parseLong(timestamp);
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+        if (Math.abs(System.currentTimeMillis() - sentAt) > HOP_MAX_AGE_MS) {
+            return false;
+        }
+        return MessageDigest.isEqual(signHop(forwardedBy, method, target, sentAt).getBytes(StandardCharsets.UTF_8),
+                signature.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Crée une partie et la démarre sur son propriétaire. La ligne {@code Parties} est validée avant l'appel
+     * distant, le propriétaire la relit pour la graine. En cas d'échec la partie est marquée ABANDON, sauf si
+     * le propriétaire l'a démarrée malgré tout (réponse perdue ou arrivée après le délai) : elle est alors
+     * rendue normalement.
+     */
+    public Long createGame(Long playerA, Long playerB) {
+        if (ring == null) {
+            return gameService.createGame(playerA, playerB);
+        }
+        Long gameId = gameService.createPartie(playerA, playerB);
+        try {
+            if (isLocal(gameId)) {
+                gameService.startGame(gameId, playerA, playerB);
+            } else {
+                startRemotely(ownerOf(gameId), gameId, playerA, playerB);
+            }
+        } catch (RuntimeException ex) {
+            if (gameService.discardPartie(gameId)) {
+                throw ex;
+            }
+        }
+        return gameId;
+    }
+
+    private void startRemotely(String owner, Long gameId, Long playerA, Long playerB) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(owner + "/internal/games/" + gameId + "/start"))
+                    .timeout(START_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .header(SECRET_HEADER, new String(secret, StandardCharsets.UTF_8))
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(
+                            objectMapper.writeValueAsBytes(new StartGameRequest(playerA, playerB))))
+                    .build();
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+        int status;
+        try {
+            status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException ex) {
+            throw new ResponseStatusException(SERVICE_UNAVAILABLE, "Serveur propriétaire de la partie injoignable", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(SERVICE_UNAVAILABLE, "Démarrage de la partie interrompu", ex);
+        }
+        if (status / 100 != 2) {
+            throw new ResponseStatusException(SERVICE_UNAVAILABLE,
+                    "Le serveur propriétaire a refusé de démarrer la partie (" + status + ")");
+        }
+    }
+
+    private static String normalize(String node) {
+        String trimmed = node.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+}
@@ -1,33 +1,83 @@
 package com.example.jee.examen.service;
 
+import com.example.jee.examen.runtime.GameState;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Lancers de dés écrits directement dans les dés compactés de {@link GameState} (aucune allocation).
+ * <ul>
+ *   <li>{@code PER_GAME} (défaut) : générateur SplitMix64 propre à chaque partie, dont l'état tient dans
+ *   {@link GameState#getRngState()}. Aucun état partagé entre parties, et la graine
+ *   ({@link GameState#getRngSeed()}, conservée sur la partie) permet de rejouer les lancers pour audit.</li>
+ *   <li>{@code THREAD_LOCAL} : {@link ThreadLocalRandom}, sans contention mais non reproductible.</li>
+ * </ul>
+ */
 @Service
 public class DiceService {
 
-    private final Random random = new Random();
+    public enum RngMode { PER_GAME, THREAD_LOCAL }
 
-    public int[] rollAll() {
-        int[] dice = new int[5];
-        for (int i = 0; i < 5; i++) {
-            dice[i] = rollDie();
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    /** Plus grand multiple de 6 représentable sur 31 bits : au-delà on rejette pour éviter le biais */
+    private static final int UNBIASED_LIMIT = Integer.MAX_VALUE - (Integer.MAX_VALUE % 6);
+
+    @Value("${app.dice.rng-mode:PER_GAME}")
+    private RngMode rngMode = RngMode.PER_GAME;
+
+    public long newSeed() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    public void rollAll(GameState state) {
+        int dice = 0;
+        for (int i = 0; i < GameState.DICE_COUNT; i++) {
+            dice = GameState.withDie(dice, i, rollDie(state));
         }
-        return dice;
+        state.setDice(dice);
     }
 
-    public int[] rerollUnlocked(int[] currentDice, boolean[] locked) {
-        int[] next = currentDice.clone();
-        for (int i = 0; i < 5; i++) {
-            if (!locked[i]) {
-                next[i] = rollDie();
+    /** Relance les dés dont le bit n'est pas dans {@link GameState#getLockMask()} */
+    public void rerollUnlocked(GameState state) {
+        int dice = state.getDice();
+        int lockMask = state.getLockMask();
+        for (int i = 0; i < GameState.DICE_COUNT; i++) {
+            if ((lockMask & (1 << i)) == 0) {
+                dice = GameState.withDie(dice, i, rollDie(state));
             }
         }
-        return next;
+        state.setDice(dice);
+    }
+
+    /** Vrai si les lancers peuvent être rejoués à partir de la graine de la partie */
+    public boolean isReproducible() {
+        return rngMode == RngMode.PER_GAME;
+    }
+
+    private int rollDie(GameState state) {
+        if (rngMode == RngMode.THREAD_LOCAL) {
+            return ThreadLocalRandom.current().nextInt(6) + 1;
+        }
+        return nextDie(state);
+    }
+
+    /** Dé suivant du générateur SplitMix64 de la partie, indépendamment du mode (rejeu) */
+    public static int nextDie(GameState state) {
+        int bits;
+        do {
+            long next = state.getRngState() + GOLDEN_GAMMA;
+            state.setRngState(next);
+            bits = (int) (mix64(next) >>> 33);
+        } while (bits >= UNBIASED_LIMIT);
+        return bits % 6 + 1;
     }
 
-    private int rollDie() {
-        return random.nextInt(6) + 1;
+    /** Fonction de finalisation de SplitMix64 (celle de {@link java.util.SplittableRandom}) */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
     }
 }
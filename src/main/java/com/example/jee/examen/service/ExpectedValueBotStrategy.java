@@ -0,0 +1,36 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.dto.RollResponse;
+import com.example.jee.examen.entity.ColonneScore;
+import com.example.jee.examen.runtime.StrategyTable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/** Joue la stratégie optimale de la {@link StrategyTable} ; glouton tant que la table n'est pas prête */
+@Component
+@RequiredArgsConstructor
+public class ExpectedValueBotStrategy implements BotStrategy {
+
+    private final StrategyService strategyService;
+
+    @Override
+    public String name() {
+        return "ev";
+    }
+
+    @Override
+    public Move nextMove(RollResponse roll, ColonneScore sheet) {
+        StrategyTable table = strategyService.table().orElse(null);
+        if (table == null) {
+            return Move.score(GreedyBotStrategy.bestImmediate(roll.getPossibleScores()));
+        }
+        int mask = sheet.getFilledMask() == null ? 0 : sheet.getFilledMask();
+        int upper = sheet.getTotalNumbers() == null ? 0 : sheet.getTotalNumbers();
+        StrategyTable.Move move = table.bestMove(roll.getDice(), roll.getRollCount(), mask, upper);
+        return move.category() != null
+                ? Move.score(move.category())
+                : Move.keep(Arrays.stream(move.keepIndexes()).boxed().toList());
+    }
+}
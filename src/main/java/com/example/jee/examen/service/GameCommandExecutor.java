@@ -0,0 +1,127 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.runtime.SerialMailbox;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Un seul écrivain par partie : toutes les commandes qui lisent ou modifient un
+ * {@link com.example.jee.examen.runtime.GameState} passent par la file de leur partie et s'exécutent
+ * dans l'ordre, transaction comprise. Les parties différentes s'exécutent en parallèle sur le pool,
+ * ou sur des threads virtuels quand {@code spring.threads.virtual.enabled} est actif (JDK 21+).
+ */
+@Slf4j
+@Component
+public class GameCommandExecutor {
+
+    private final GameStateManager gameStateManager;
+    private final Executor pool;
+    private final Map<Long, SerialMailbox> mailboxes = new ConcurrentHashMap<>();
+
+    public GameCommandExecutor(GameStateManager gameStateManager,
+                               Environment environment,
+                               @Value("${app.games.executor.threads:0}") int threads) {
+        this.gameStateManager = gameStateManager;
+        if (environment.getProperty("spring.threads.virtual.enabled", boolean.class, false)
+                && !Threading.VIRTUAL.isActive(environment)) {
+            log.warn("spring.threads.virtual.enabled ignoré : JRE {} (JDK 21+ requis), threads plateforme utilisés",
+                    Runtime.version().feature());
+        }
+        this.pool = Threading.VIRTUAL.isActive(environment)
+                ? new VirtualThreadTaskExecutor("game-")
+                : newPlatformPool(threads);
+    }
+
+    private static ExecutorService newPlatformPool(int threads) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors() * 2;
+        AtomicInteger threadIndex = new AtomicInteger();
+        return Executors.newFixedThreadPool(poolSize, task -> {
+            Thread thread = new Thread(task, "game-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public <T> CompletableFuture<T> submit(Long gameId, Supplier<T> command) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable task = () -> {
+            try {
+                result.complete(gameStateManager.withinCommand(command));
+            } catch (RuntimeException ex) {
+                result.completeExceptionally(ex);
+            }
+        };
+        SerialMailbox mailbox = mailboxFor(gameId);
+        if (mailbox == null) {
+            // Partie inconnue en mémoire : la commande échouera (404) sans état à protéger
+            task.run();
+        } else {
+            mailbox.execute(task);
+        }
+        return result;
+    }
+
+    public void execute(Long gameId, Runnable command) {
+        submit(gameId, () -> {
+            command.run();
+            return null;
+        });
+    }
+
+    /** Variante bloquante, les exceptions de la commande sont relancées telles quelles */
+    public <T> T call(Long gameId, Supplier<T> command) {
+        try {
+            return submit(gameId, command).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /** Libère la file d'une partie retirée de la mémoire */
+    public void release(Long gameId) {
+        mailboxes.remove(gameId);
+    }
+
+    /**
+     * Libère les files des parties retirées du stockage, y compris par un autre serveur quand il est partagé.
+     * Une file n'est créée que pour une partie présente et les ids ne sont pas réutilisés : une partie absente
+     * ne reçoit plus de commande.
+     */
+    public void releaseAbsent(Set<Long> knownLiveGameIds) {
+        mailboxes.keySet().removeIf(gameId -> !knownLiveGameIds.contains(gameId) && !gameStateManager.contains(gameId));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    private SerialMailbox mailboxFor(Long gameId) {
+        SerialMailbox mailbox = mailboxes.get(gameId);
+        if (mailbox != null || !gameStateManager.contains(gameId)) {
+            return mailbox;
+        }
+        return mailboxes.computeIfAbsent(gameId, id -> new SerialMailbox(pool));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.runtime.SerialMailbox;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Diffuse les changements d'état d'une partie aux clients abonnés via Server-Sent Events.
+ * Une partie sans abonné ne coûte rien : le payload n'est construit que si quelqu'un écoute.
+ * <p>
+ * Les événements d'une partie passent par sa file d'envoi ({@link SerialMailbox} sans pool) : le thread qui
+ * la trouve vide envoie, les autres déposent leur événement et repartent sans attendre. Aucun verrou n'est
+ * tenu pendant les écritures réseau, un abonné lent ne retarde que les envois de sa partie. La dernière
+ * version d'état envoyée est retenue par partie : un état relu après coup ({@link #publishIfNewer}) n'est
+ * jamais poussé après un état plus récent.
+ */
+@Slf4j
+@Component
+public class GameEventPublisher {
+
+    public static final String GAME_EVENT = "game";
+    /** Lancer de dés : payload compact, sans les feuilles de score */
+    public static final String ROLL_EVENT = "roll";
+
+    private static final long EMITTER_TIMEOUT_MS = 10 * 60_000L;
+
+    private final Map<Long, GameStream> streams = new ConcurrentHashMap<>();
+
+    /** Abonnés d'une partie et file de ses envois */
+    private static final class GameStream {
+
+        private final Set<SseEmitter> emitters = ConcurrentHashMap.newKeySet();
+        private final SerialMailbox deliveries = new SerialMailbox(Runnable::run);
+        /** Dernière version envoyée ; lue et écrite uniquement par les envois, exécutés un par un */
+        private long sentVersion = -1;
+    }
+
+    public SseEmitter subscribe(Long gameId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        streams.computeIfAbsent(gameId, id -> new GameStream()).emitters.add(emitter);
+        emitter.onCompletion(() -> unsubscribe(gameId, emitter));
+        emitter.onTimeout(() -> unsubscribe(gameId, emitter));
+        emitter.onError(ex -> unsubscribe(gameId, emitter));
+        return emitter;
+    }
+
+    public boolean hasSubscribers(Long gameId) {
+        GameStream stream = streams.get(gameId);
+        return stream != null && !stream.emitters.isEmpty();
+    }
+
+    /** Parties ayant au moins un abonné sur ce serveur (vue en lecture seule) */
+    public Set<Long> subscribedGames() {
+        return Collections.unmodifiableSet(streams.keySet());
+    }
+
+    /**
+     * Publie un événement après le commit de la transaction courante (immédiatement s'il n'y en a pas),
+     * pour ne jamais pousser un état qui serait ensuite annulé par un rollback.
+     */
+    public void publish(Long gameId, String eventName, long version, Supplier<?> payload) {
+        if (!hasSubscribers(gameId)) {
+            return;
+        }
+        Object data = payload.get();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(gameId, eventName, version, data, false);
+                }
+            });
+        } else {
+            deliver(gameId, eventName, version, data, false);
+        }
+    }
+
+    /** Publie immédiatement, sauf si une version égale ou plus récente de l'état a déjà été envoyée */
+    public void publishIfNewer(Long gameId, String eventName, long version, Object data) {
+        deliver(gameId, eventName, version, data, true);
+    }
+
+    /** Envoie un événement à un seul abonné (ex : l'état initial juste après l'abonnement). */
+    public void send(Long gameId, SseEmitter emitter, String eventName, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(data));
+        } catch (IOException | IllegalStateException ex) {
+            log.debug("Abonné SSE déconnecté pour la partie {}", gameId);
+            unsubscribe(gameId, emitter);
+            emitter.completeWithError(ex);
+        }
+    }
+
+    private void deliver(Long gameId, String eventName, long version, Object data, boolean onlyIfNewer) {
+        GameStream stream = streams.get(gameId);
+        if (stream == null) {
+            return;
+        }
+        stream.deliveries.execute(() -> {
+            if (onlyIfNewer && stream.sentVersion >= version) {
+                return;
+            }
+            stream.sentVersion = Math.max(stream.sentVersion, version);
+            for (SseEmitter emitter : stream.emitters) {
+                send(gameId, emitter, eventName, data);
+            }
+        });
+    }
+
+    private void unsubscribe(Long gameId, SseEmitter emitter) {
+        streams.computeIfPresent(gameId, (id, stream) -> {
+            stream.emitters.remove(emitter);
+            return stream.emitters.isEmpty() ? null : stream;
+        });
+    }
+}
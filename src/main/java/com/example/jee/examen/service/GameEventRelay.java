@@ -0,0 +1,54 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.dto.GameResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Avec l'état partagé ({@code app.games.store=jdbc}) et sans répartition des parties, un coup peut être traité
+ * par un autre serveur que celui qui tient le flux SSE du joueur. Les révisions des parties suivies ici sont
+ * relues toutes les {@code app.games.events-poll-interval-ms} ; une partie modifiée est republiée en entier,
+ * sauf si ce serveur a déjà envoyé cette version. Avec {@code app.cluster.nodes}, toutes les requêtes d'une
+ * partie arrivent sur son propriétaire et la relecture est inutile.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.games.store", havingValue = "jdbc")
+@RequiredArgsConstructor
+public class GameEventRelay {
+
+    private final JdbcGameStateManager gameStateManager;
+    private final GameEventPublisher gameEventPublisher;
+    private final GameService gameService;
+    private final ClusterRouter clusterRouter;
+    /** Dernière révision vue par partie suivie ; lue et écrite par la seule tâche planifiée */
+    private final Map<Long, Long> knownRevisions = new HashMap<>();
+
+    @Scheduled(fixedDelayString = "${app.games.events-poll-interval-ms:250}")
+    public void relayRemoteChanges() {
+        Set<Long> subscribed = gameEventPublisher.subscribedGames();
+        knownRevisions.keySet().retainAll(subscribed);
+        if (subscribed.isEmpty() || clusterRouter.enabled()) {
+            return;
+        }
+        gameStateManager.revisions(List.copyOf(subscribed)).forEach((gameId, revision) -> {
+            if (revision.equals(knownRevisions.put(gameId, revision))) {
+                return;
+            }
+            try {
+                GameResponse snapshot = gameService.snapshot(gameId);
+                gameEventPublisher.publishIfNewer(gameId, GameEventPublisher.GAME_EVENT, snapshot.getVersion(), snapshot);
+            } catch (RuntimeException ex) {
+                log.warn("Relecture de la partie {} pour ses abonnés impossible", gameId, ex);
+            }
+        });
+    }
+}
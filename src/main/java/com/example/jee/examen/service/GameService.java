@@ -4,22 +4,24 @@ import com.example.jee.examen.dto.GameResponse;
 import com.example.jee.examen.dto.RollResponse;
 import com.example.jee.examen.dto.ScoreSheetDto;
 import com.example.jee.examen.entity.ColonneScore;
-import com.example.jee.examen.entity.Joueur;
 import com.example.jee.examen.entity.Parties;
 import com.example.jee.examen.enums.Category;
 import com.example.jee.examen.enums.PartieStatus;
 import com.example.jee.examen.enums.RuntimeGameStatus;
 import com.example.jee.examen.repository.ColonneScoreRepository;
-import com.example.jee.examen.repository.JoueurRepository;
 import com.example.jee.examen.repository.PartiesRepository;
+import com.example.jee.examen.runtime.GameFinishedEvent;
 import com.example.jee.examen.runtime.GameState;
+import com.example.jee.examen.runtime.MoveLog;
+import com.example.jee.examen.runtime.TurnStartedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 import static org.springframework.http.HttpStatus.*;
 import static com.example.jee.examen.enums.RuntimeGameStatus.FINISHED;
@@ -28,65 +30,156 @@ import static com.example.jee.examen.enums.RuntimeGameStatus.FINISHED;
 @RequiredArgsConstructor
 public class GameService {
 
-    private static final long TURN_DURATION_MS = 30_000L;
+    public static final long TURN_DURATION_MS = 30_000L;
 
     private final PartiesRepository partiesRepository;
     private final ColonneScoreRepository colonneScoreRepository;
-    private final JoueurRepository joueurRepository;
+    private final PseudoDirectory pseudoDirectory;
     private final GameStateManager gameStateManager;
     private final DiceService diceService;
     private final ScoreService scoreService;
+    private final GameEventPublisher gameEventPublisher;
+    private final ScoreSheetWriter scoreSheetWriter;
+    private final HallOfFameService hallOfFameService;
+    private final TurnTimeoutScheduler turnTimeoutScheduler;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final GameStateJournal gameStateJournal;
+    private final ReplayService replayService;
+    private final RatingService ratingService;
 
     @Transactional
     public Long createGame(Long playerA, Long playerB) {
+        Parties partie = insertPartie(playerA, playerB);
+        startGame(partie, playerA, playerB);
+        return partie.getId();
+    }
+
+    /**
+     * Première moitié de {@link #createGame} quand la partie appartient à un autre serveur : seule la ligne
+     * {@code Parties} est créée ici, son propriétaire la démarre ensuite avec {@link #startGame(Long, Long, Long)}.
+     */
+    @Transactional
+    public Long createPartie(Long playerA, Long playerB) {
+        return insertPartie(playerA, playerB).getId();
+    }
+
+    /** Seconde moitié, sur le serveur propriétaire : feuilles de score et état en mémoire */
+    @Transactional
+    public void startGame(Long gameId, Long playerA, Long playerB) {
+        Parties partie = partiesRepository.findByIdForUpdate(gameId)
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Partie introuvable"));
+        if (partie.getStatus() != PartieStatus.EN_COURS
+                || !colonneScoreRepository.findByIdPartieOrderByIdJoueurAsc(gameId).isEmpty()) {
+            throw new ResponseStatusException(CONFLICT, "La partie a déjà démarré");
+        }
+        startGame(partie, playerA, playerB);
+    }
+
+    /**
+     * Partie créée par {@link #createPartie} que son propriétaire n'a pas pu démarrer. La ligne est verrouillée
+     * comme au démarrage : un démarrage en cours sur le propriétaire se termine d'abord, et une partie dont les
+     * feuilles existent a bien démarré.
+     *
+     * @return false si la partie a démarré et n'est donc pas abandonnée
+     */
+    @Transactional
+    public boolean discardPartie(Long gameId) {
+        Parties partie = partiesRepository.findByIdForUpdate(gameId).orElse(null);
+        if (partie == null || partie.getStatus() != PartieStatus.EN_COURS) {
+            return true;
+        }
+        if (gameStateManager.contains(gameId)
+                || !colonneScoreRepository.findByIdPartieOrderByIdJoueurAsc(gameId).isEmpty()) {
+            return false;
+        }
+        partie.setStatus(PartieStatus.ABANDON);
+        partiesRepository.save(partie);
+        return true;
+    }
+
+    private Parties insertPartie(Long playerA, Long playerB) {
         if (Objects.equals(playerA, playerB)) {
             throw new ResponseStatusException(BAD_REQUEST, "Deux joueurs différents sont requis");
         }
 
         Parties partie = Parties.builder()
                 .status(PartieStatus.EN_COURS)
+                .rngSeed(diceService.newSeed())
                 .build();
-        partie = partiesRepository.save(partie);
+        return partiesRepository.save(partie);
+    }
 
-        colonneScoreRepository.save(ColonneScore.builder().idPartie(partie.getId()).idJoueur(playerA).build());
-        colonneScoreRepository.save(ColonneScore.builder().idPartie(partie.getId()).idJoueur(playerB).build());
+    private void startGame(Parties partie, Long playerA, Long playerB) {
+        long seed = partie.getRngSeed();
+        List<ColonneScore> sheets = new ArrayList<>(colonneScoreRepository.saveAll(List.of(
+                ColonneScore.builder().idPartie(partie.getId()).idJoueur(playerA).build(),
+                ColonneScore.builder().idPartie(partie.getId()).idJoueur(playerB).build())));
+        sheets.sort(Comparator.comparing(ColonneScore::getIdJoueur));
 
         long now = System.currentTimeMillis();
-        List<Long> playerIds = List.of(playerA, playerB);
-        Map<Long, Integer> extraYam = new HashMap<>();
-        extraYam.put(playerA, 0);
-        extraYam.put(playerB, 0);
+        Map<Long, String> pseudoById = pseudoDirectory.pseudosOf(List.of(playerA, playerB));
 
         GameState state = GameState.builder()
                 .partieId(partie.getId())
-                .playerIds(playerIds)
-                .currentPlayerId(playerA)
-                .dice(new int[]{0, 0, 0, 0, 0})
-                .locked(new boolean[]{false, false, false, false, false})
-                .rollCount(0)
+                .firstPlayerId(playerA)
+                .secondPlayerId(playerB)
+                .firstPseudo(pseudoById.get(playerA))
+                .secondPseudo(pseudoById.get(playerB))
                 .turnStartedAt(now)
                 .turnDeadlineAt(now + TURN_DURATION_MS)
-                .extraYamCount(extraYam)
+                .lastActionAt(now)
+                .sheets(List.of(sheets.get(0), sheets.get(1)))
                 .status(RuntimeGameStatus.IN_PROGRESS)
+                .rngSeed(seed)
+                .rngState(seed)
+                .moveLog(new MoveLog())
                 .build();
 
         gameStateManager.put(partie.getId(), state);
-        return partie.getId();
+        gameStateJournal.record(state);
+        turnTimeoutScheduler.schedule(state);
+        applicationEventPublisher.publishEvent(new TurnStartedEvent(partie.getId(), playerA));
     }
 
     @Transactional(readOnly = true)
     public GameResponse getGame(Long gameId, Long requesterId) {
-        assertPlayerInGame(gameId, requesterId);
-        Parties partie = getPartie(gameId);
-        List<ColonneScore> sheets = colonneScoreRepository.findByIdPartieOrderByIdJoueurAsc(gameId);
         GameState state = gameStateManager.get(gameId).orElse(null);
-        return buildGameResponse(partie, state, sheets);
+        assertPlayerInGame(gameId, state, requesterId);
+        return snapshot(gameId, state);
+    }
+
+    /** État complet diffusé aux abonnés SSE, sans contrôle du demandeur */
+    @Transactional(readOnly = true)
+    public GameResponse snapshot(Long gameId) {
+        return snapshot(gameId, gameStateManager.get(gameId).orElse(null));
+    }
+
+    private GameResponse snapshot(Long gameId, GameState state) {
+        // Pendant la partie, l'état en mémoire fait foi (la base peut avoir un léger retard)
+        if (state != null && state.getStatus() != FINISHED) {
+            return buildGameResponse(gameId, PartieStatus.EN_COURS, null, state, state.getSheets());
+        }
+        List<ColonneScore> sheets = state != null
+                ? state.getSheets()
+                : colonneScoreRepository.findByIdPartieOrderByIdJoueurAsc(gameId);
+        return buildGameResponse(getPartie(gameId), state, sheets);
+    }
+
+    /** Comme {@link #getGame}, mais vide si le client connaît déjà cette version de l'état */
+    @Transactional(readOnly = true)
+    public Optional<GameResponse> getGameIfChanged(Long gameId, Long requesterId, long knownVersion) {
+        GameState state = gameStateManager.get(gameId).orElse(null);
+        if (state != null && state.getVersion() == knownVersion) {
+            assertPlayerInGame(gameId, state, requesterId);
+            return Optional.empty();
+        }
+        return Optional.of(getGame(gameId, requesterId));
     }
 
     @Transactional
     public RollResponse roll(Long gameId, Long playerId) {
         GameState state = getStateOrThrow(gameId);
-        assertPlayerInGame(gameId, playerId);
+        assertPlayerInGame(gameId, state, playerId);
         if (state.getStatus() == FINISHED) {
             throw new ResponseStatusException(CONFLICT, "La partie est déjà terminée");
         }
@@ -94,94 +187,95 @@ public class GameService {
         // Si le timeout vient de terminer la partie → on retourne sans exception (commit OK)
         // Le frontend détectera TERMINE via le prochain poll
         if (state.getStatus() == FINISHED) {
-            return buildTimeoutFinishedRollResponse(gameId);
+            return buildTimeoutFinishedRollResponse(state);
         }
         assertActivePlayer(state, playerId);
+        state.setLastActionAt(System.currentTimeMillis());
 
         if (state.getRollCount() >= 3) {
             throw new ResponseStatusException(BAD_REQUEST, "Maximum 3 lancers par tour");
         }
 
-        int[] nextDice = state.getRollCount() == 0
-                ? diceService.rollAll()
-                : diceService.rerollUnlocked(state.getDice(), state.getLocked());
-
-        state.setDice(nextDice);
+        state.getMoveLog().roll(state.getLockMask());
+        if (state.getRollCount() == 0) {
+            diceService.rollAll(state);
+        } else {
+            diceService.rerollUnlocked(state);
+        }
         state.setRollCount(state.getRollCount() + 1);
+        state.setVersion(state.getVersion() + 1);
+        gameStateJournal.record(state);
 
-        ColonneScore sheet = getSheet(gameId, playerId);
-        return buildRollResponse(state, sheet, gameId);
+        return publishRoll(gameId, buildRollResponse(state, getSheet(state, playerId)));
     }
 
     @Transactional
     public RollResponse lockAndRoll(Long gameId, Long playerId, List<Integer> lockedIndexes) {
         GameState state = getStateOrThrow(gameId);
-        assertPlayerInGame(gameId, playerId);
+        assertPlayerInGame(gameId, state, playerId);
         if (state.getStatus() == FINISHED) {
             throw new ResponseStatusException(CONFLICT, "La partie est déjà terminée");
         }
         applyTimeoutPenaltyIfNeeded(gameId, state);
         // Si le timeout vient de terminer la partie → commit propre, le frontend poll détectera TERMINE
         if (state.getStatus() == FINISHED) {
-            return buildTimeoutFinishedRollResponse(gameId);
+            return buildTimeoutFinishedRollResponse(state);
         }
         assertActivePlayer(state, playerId);
+        state.setLastActionAt(System.currentTimeMillis());
 
         if (state.getRollCount() >= 3) {
             throw new ResponseStatusException(BAD_REQUEST, "Maximum 3 lancers par tour");
         }
 
-        boolean[] locks = new boolean[]{false, false, false, false, false};
         for (Integer idx : lockedIndexes) {
             if (idx == null || idx < 0 || idx > 4) {
                 throw new ResponseStatusException(BAD_REQUEST, "Index de lock invalide: " + idx);
             }
-            locks[idx] = true;
         }
-        state.setLocked(locks);
-
-        int[] nextDice = state.getRollCount() == 0
-                ? diceService.rollAll()
-                : diceService.rerollUnlocked(state.getDice(), state.getLocked());
+        int lockMask = 0;
+        for (Integer idx : lockedIndexes) {
+            lockMask |= 1 << idx;
+        }
+        state.setLockMask(lockMask);
 
-        state.setDice(nextDice);
+        state.getMoveLog().roll(state.getLockMask());
+        if (state.getRollCount() == 0) {
+            diceService.rollAll(state);
+        } else {
+            diceService.rerollUnlocked(state);
+        }
         state.setRollCount(state.getRollCount() + 1);
+        state.setVersion(state.getVersion() + 1);
+        gameStateJournal.record(state);
 
-        ColonneScore sheet = getSheet(gameId, playerId);
-        return buildRollResponse(state, sheet, gameId);
+        return publishRoll(gameId, buildRollResponse(state, getSheet(state, playerId)));
     }
 
     @Transactional
     public GameResponse score(Long gameId, Long playerId, Category category) {
         GameState state = getStateOrThrow(gameId);
-        assertPlayerInGame(gameId, playerId);
+        assertPlayerInGame(gameId, state, playerId);
         if (state.getStatus() == FINISHED) {
             throw new ResponseStatusException(CONFLICT, "La partie est déjà terminée");
         }
         applyTimeoutPenaltyIfNeeded(gameId, state);
         // Si un timeout a terminé la partie, on retourne l'état final au lieu de continuer
         if (state.getStatus() == FINISHED) {
-            Parties partie = getPartie(gameId);
-            List<ColonneScore> sheets = colonneScoreRepository.findByIdPartieOrderByIdJoueurAsc(gameId);
-            return buildGameResponse(partie, state, sheets);
+            return buildGameResponse(getPartie(gameId), state, state.getSheets());
         }
         assertActivePlayer(state, playerId);
+        state.setLastActionAt(System.currentTimeMillis());
 
-        ColonneScore sheet = getSheet(gameId, playerId);
+        ColonneScore sheet = getSheet(state, playerId);
         if (scoreService.isFilled(sheet, category)) {
             throw new ResponseStatusException(BAD_REQUEST, "Catégorie déjà remplie");
         }
 
-        boolean isYamRoll = scoreService.score(Category.YAM, state.getDice()) == 50;
-        if (isYamRoll && sheet.getScoreYam() != null) {
-            int extra = state.getExtraYamCount().getOrDefault(playerId, 0) + 1;
-            state.getExtraYamCount().put(playerId, extra);
-        }
-
-        int value = scoreService.score(category, state.getDice());
-        scoreService.setCategoryScore(sheet, category, value);
-        scoreService.recomputeTotals(sheet, state.getExtraYamCount().getOrDefault(playerId, 0));
-        colonneScoreRepository.save(sheet);
+        state.setExtraYams(playerId, scoreService.applyTurnScore(sheet, category, state.getDice(), state.extraYams(playerId)));
+        state.getMoveLog().score(category);
+        scoreSheetWriter.markDirty(sheet);
+        state.setSheetsVersion(state.getSheetsVersion() + 1);
 
         return completeTurnOrFinish(gameId, state);
     }
@@ -191,59 +285,122 @@ public class GameService {
         if (System.currentTimeMillis() <= state.getTurnDeadlineAt()) {
             return;
         }
+        applyTurnPenalty(gameId, state);
+    }
 
-        Long currentPlayerId = state.getCurrentPlayerId();
-        ColonneScore sheet = getSheet(gameId, currentPlayerId);
-        Category penaltyCategory = scoreService.firstUnfilledCategory(sheet);
-        if (penaltyCategory == null) {
+    /**
+     * Échéance d'un tour déclenchée par {@link TurnTimeoutScheduler}. Sans effet si le tour a déjà
+     * changé entre-temps (coup joué ou pénalité appliquée par une requête).
+     */
+    @Transactional
+    public void expireTurn(Long gameId, int turnNumber) {
+        GameState state = gameStateManager.get(gameId).orElse(null);
+        if (state == null || state.getStatus() == FINISHED || state.getTurnNumber() != turnNumber) {
             return;
         }
+        if (System.currentTimeMillis() <= state.getTurnDeadlineAt()) {
+            turnTimeoutScheduler.schedule(state);
+            return;
+        }
+        applyTurnPenalty(gameId, state);
+    }
 
-        scoreService.setCategoryScore(sheet, penaltyCategory, 0);
-        scoreService.recomputeTotals(sheet, state.getExtraYamCount().getOrDefault(currentPlayerId, 0));
-        colonneScoreRepository.save(sheet);
+    private void applyTurnPenalty(Long gameId, GameState state) {
+        long currentPlayerId = state.getCurrentPlayerId();
+        ColonneScore sheet = getSheet(state, currentPlayerId);
+        if (scoreService.applyPenalty(sheet, state.extraYams(currentPlayerId)) == null) {
+            return;
+        }
+        state.getMoveLog().penalty();
+        scoreSheetWriter.markDirty(sheet);
+        state.setSheetsVersion(state.getSheetsVersion() + 1);
 
         completeTurnOrFinish(gameId, state);
     }
 
     private GameResponse completeTurnOrFinish(Long gameId, GameState state) {
-        List<ColonneScore> sheets = colonneScoreRepository.findByIdPartieOrderByIdJoueurAsc(gameId);
+        state.setVersion(state.getVersion() + 1);
+        List<ColonneScore> sheets = state.getSheets();
         boolean finished = sheets.stream().anyMatch(scoreService::allCategoriesFilled);
 
-        Parties partie = getPartie(gameId);
         if (finished) {
+            // Fin de partie : les feuilles sont écrites de façon synchrone avec le statut final
+            scoreSheetWriter.flushNow(sheets);
+            Parties partie = getPartie(gameId);
             partie.setStatus(PartieStatus.TERMINE);
-            ColonneScore winnerSheet = sheets.stream()
-                    .max(Comparator.comparingInt(ColonneScore::getScoreTotal))
-                    .orElseThrow(() -> new ResponseStatusException(INTERNAL_SERVER_ERROR, "Impossible de déterminer le gagnant"));
-            partie.setIdVainqueur(winnerSheet.getIdJoueur());
+            Long winnerId = scoreService.winnerId(sheets);
+            if (winnerId == null) {
+                throw new ResponseStatusException(INTERNAL_SERVER_ERROR, "Impossible de déterminer le gagnant");
+            }
+            partie.setIdVainqueur(winnerId);
             partiesRepository.save(partie);
+            int firstTotal = sheets.get(0).getScoreTotal();
+            int secondTotal = sheets.get(1).getScoreTotal();
+            ratingService.recordResult(sheets.get(0).getIdJoueur(), sheets.get(1).getIdJoueur(),
+                    firstTotal > secondTotal ? 1.0 : firstTotal == secondTotal ? 0.5 : 0.0);
+            replayService.save(state);
             state.setStatus(RuntimeGameStatus.FINISHED);
-            return buildGameResponse(partie, state, sheets);
+            state.setFinishedAt(System.currentTimeMillis());
+            turnTimeoutScheduler.cancel(gameId);
+            gameStateJournal.recordEnd(gameId);
+            GameResponse response = buildGameResponse(partie, state, sheets);
+            hallOfFameService.recordFinishedGame(gameId, response.getScores());
+            applicationEventPublisher.publishEvent(new GameFinishedEvent(gameId, PartieStatus.TERMINE));
+            return publishAndReturn(gameId, response);
         }
 
         switchToNextPlayer(state);
+        gameStateJournal.record(state);
+        applicationEventPublisher.publishEvent(new TurnStartedEvent(gameId, state.getCurrentPlayerId()));
+        return publishAndReturn(gameId, buildGameResponse(gameId, PartieStatus.EN_COURS, null, state, sheets));
+    }
+
+    /**
+     * Clôt une partie dont aucun joueur n'a agi depuis {@code inactiveSince} : feuilles écrites, partie marquée
+     * ABANDON. Appelé par {@link GameStateSweeper}, qui a lu l'état avant d'atteindre la file de la partie.
+     *
+     * @return false si la partie est absente, déjà terminée ou a repris entre-temps
+     */
+    @Transactional
+    public boolean abandonGame(Long gameId, long inactiveSince) {
+        GameState state = gameStateManager.get(gameId).orElse(null);
+        if (state == null || state.getStatus() == FINISHED || state.getLastActionAt() >= inactiveSince) {
+            return false;
+        }
+        state.setStatus(RuntimeGameStatus.FINISHED);
+        state.setFinishedAt(System.currentTimeMillis());
+        state.setVersion(state.getVersion() + 1);
+        turnTimeoutScheduler.cancel(gameId);
+        gameStateJournal.recordEnd(gameId);
+        scoreSheetWriter.flushNow(state.getSheets());
+
+        Parties partie = getPartie(gameId);
+        partie.setStatus(PartieStatus.ABANDON);
         partiesRepository.save(partie);
-        return buildGameResponse(partie, state, sheets);
+        replayService.save(state);
+        applicationEventPublisher.publishEvent(new GameFinishedEvent(gameId, PartieStatus.ABANDON));
+        publishAndReturn(gameId, buildGameResponse(partie, state, state.getSheets()));
+        return true;
+    }
+
+    private RollResponse publishRoll(Long gameId, RollResponse response) {
+        gameEventPublisher.publish(gameId, GameEventPublisher.ROLL_EVENT, response.getVersion(), () -> response);
+        return response;
+    }
+
+    private GameResponse publishAndReturn(Long gameId, GameResponse response) {
+        gameEventPublisher.publish(gameId, GameEventPublisher.GAME_EVENT, response.getVersion(), () -> response);
+        return response;
     }
 
     private void switchToNextPlayer(GameState state) {
-        List<Long> ids = state.getPlayerIds();
-        int currentIdx = ids.indexOf(state.getCurrentPlayerId());
-        int nextIdx = (currentIdx + 1) % ids.size();
-        state.setCurrentPlayerId(ids.get(nextIdx));
-        state.setRollCount(0);
-        state.setDice(new int[]{0, 0, 0, 0, 0});
-        state.setLocked(new boolean[]{false, false, false, false, false});
-        long now = System.currentTimeMillis();
-        state.setTurnStartedAt(now);
-        state.setTurnDeadlineAt(now + TURN_DURATION_MS);
+        state.startNextTurn(System.currentTimeMillis(), TURN_DURATION_MS);
+        turnTimeoutScheduler.schedule(state);
     }
 
     /** Retourne un RollResponse neutre quand la partie vient de se terminer par timeout.
      *  Ne lance PAS d'exception → la transaction commite → DB = TERMINE → le poll détecte la fin. */
-    private RollResponse buildTimeoutFinishedRollResponse(Long gameId) {
-        List<ColonneScore> allSheets = colonneScoreRepository.findByIdPartieOrderByIdJoueurAsc(gameId);
+    private RollResponse buildTimeoutFinishedRollResponse(GameState state) {
         return RollResponse.builder()
                 .dice(new int[]{0, 0, 0, 0, 0})
                 .locked(new boolean[]{false, false, false, false, false})
@@ -251,46 +408,52 @@ public class GameService {
                 .rollsLeft(0)
                 .turnDeadlineAt(0L)
                 .possibleScores(Collections.emptyMap())
-                .scores(toScoreSheetDtos(allSheets))
+                .version(state.getVersion())
+                .sheetsVersion(state.getSheetsVersion())
                 .build();
     }
 
-    private RollResponse buildRollResponse(GameState state, ColonneScore sheet, Long gameId) {
-        List<ColonneScore> allSheets = colonneScoreRepository.findByIdPartieOrderByIdJoueurAsc(gameId);
+    private RollResponse buildRollResponse(GameState state, ColonneScore sheet) {
         return RollResponse.builder()
-                .dice(state.getDice().clone())
-                .locked(state.getLocked().clone())
+                .dice(state.diceArray())
+                .locked(state.lockedArray())
                 .rollCount(state.getRollCount())
                 .rollsLeft(3 - state.getRollCount())
                 .turnDeadlineAt(state.getTurnDeadlineAt())
                 .possibleScores(scoreService.possibleScores(state.getDice(), sheet))
-                .scores(toScoreSheetDtos(allSheets))
+                .version(state.getVersion())
+                .sheetsVersion(state.getSheetsVersion())
                 .build();
     }
 
     private GameResponse buildGameResponse(Parties partie, GameState state, List<ColonneScore> sheets) {
+        return buildGameResponse(partie.getId(), partie.getStatus(), partie.getIdVainqueur(), state, sheets);
+    }
+
+    private GameResponse buildGameResponse(Long gameId, PartieStatus status, Long winnerId,
+                                           GameState state, List<ColonneScore> sheets) {
         return GameResponse.builder()
-                .gameId(partie.getId())
-                .status(partie.getStatus())
+                .gameId(gameId)
+                .status(status)
                 .currentPlayerId(state != null ? state.getCurrentPlayerId() : null)
-                .playerIds(state != null ? state.getPlayerIds() : sheets.stream().map(ColonneScore::getIdJoueur).toList())
-                .dice(state != null ? state.getDice().clone() : null)
-                .locked(state != null ? state.getLocked().clone() : null)
+                .playerIds(state != null ? state.playerIds() : sheets.stream().map(ColonneScore::getIdJoueur).toList())
+                .dice(state != null ? state.diceArray() : null)
+                .locked(state != null ? state.lockedArray() : null)
                 .rollCount(state != null ? state.getRollCount() : 0)
                 .turnDeadlineAt(state != null ? state.getTurnDeadlineAt() : 0)
-                .scores(toScoreSheetDtos(sheets))
-                .winnerId(partie.getIdVainqueur())
+                .scores(toScoreSheetDtos(sheets, state != null
+                        ? state::pseudo
+                        : pseudoDirectory.pseudosOf(sheets.stream().map(ColonneScore::getIdJoueur).toList())::get))
+                .winnerId(winnerId)
+                .version(state != null ? state.getVersion() : 0)
+                .sheetsVersion(state != null ? state.getSheetsVersion() : 0)
                 .build();
     }
 
-    private List<ScoreSheetDto> toScoreSheetDtos(List<ColonneScore> sheets) {
-        Map<Long, String> pseudoById = joueurRepository.findAllById(
-                sheets.stream().map(ColonneScore::getIdJoueur).toList()
-        ).stream().collect(Collectors.toMap(Joueur::getId, Joueur::getPseudo));
-
+    private List<ScoreSheetDto> toScoreSheetDtos(List<ColonneScore> sheets, Function<Long, String> pseudoOf) {
         return sheets.stream().map(sheet -> ScoreSheetDto.builder()
                 .playerId(sheet.getIdJoueur())
-                .pseudo(pseudoById.getOrDefault(sheet.getIdJoueur(), "unknown"))
+                .pseudo(Objects.requireNonNullElse(pseudoOf.apply(sheet.getIdJoueur()), "unknown"))
                 .score1(sheet.getScore1())
                 .score2(sheet.getScore2())
                 .score3(sheet.getScore3())
@@ -310,21 +473,28 @@ public class GameService {
                 .build()).toList();
     }
 
-    private void assertPlayerInGame(Long gameId, Long playerId) {
-        if (!colonneScoreRepository.existsByIdPartieAndIdJoueur(gameId, playerId)) {
+    private void assertPlayerInGame(Long gameId, GameState state, Long playerId) {
+        boolean member = state != null
+                ? state.hasPlayer(playerId)
+                : colonneScoreRepository.existsByIdPartieAndIdJoueur(gameId, playerId);
+        if (!member) {
             throw new ResponseStatusException(FORBIDDEN, "Le joueur n'appartient pas à cette partie");
         }
     }
 
     private void assertActivePlayer(GameState state, Long playerId) {
-        if (!Objects.equals(state.getCurrentPlayerId(), playerId)) {
+        if (state.getCurrentPlayerId() != playerId) {
             throw new ResponseStatusException(FORBIDDEN, "Ce n'est pas votre tour");
         }
     }
 
-    private ColonneScore getSheet(Long gameId, Long playerId) {
-        return colonneScoreRepository.findByIdPartieAndIdJoueur(gameId, playerId)
-                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Feuille de score introuvable"));
+    private ColonneScore getSheet(GameState state, Long playerId) {
+        for (ColonneScore sheet : state.getSheets()) {
+            if (sheet.getIdJoueur().equals(playerId)) {
+                return sheet;
+            }
+        }
+        throw new ResponseStatusException(NOT_FOUND, "Feuille de score introuvable");
     }
 
     private Parties getPartie(Long gameId) {
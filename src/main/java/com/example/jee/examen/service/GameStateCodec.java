@@ -0,0 +1,122 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.entity.ColonneScore;
+import com.example.jee.examen.enums.Category;
+import com.example.jee.examen.enums.RuntimeGameStatus;
+import com.example.jee.examen.runtime.GameState;
+import com.example.jee.examen.runtime.MoveLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Forme binaire d'un {@link GameState}, partagée par le journal des coups et le stockage hors tas.
+ * Les pseudos n'en font pas partie : ils sont résolus par {@link PseudoDirectory} au décodage.
+ * Une partie compte au plus 25 tours de 4 coups, un état encodé tient donc dans {@link #MAX_BYTES}.
+ */
+@Component
+@RequiredArgsConstructor
+public class GameStateCodec {
+
+    private static final Category[] CATEGORIES = Category.values();
+    private static final RuntimeGameStatus[] STATUSES = RuntimeGameStatus.values();
+    private static final int SHEET_BYTES = 2 * Long.BYTES + CATEGORIES.length * Short.BYTES;
+    private static final int FIXED_BYTES = 3 * Long.BYTES + 2 * Integer.BYTES
+            + 1 + Integer.BYTES + 1 + 1 + Integer.BYTES
+            + 4 * Long.BYTES + 1 + 4 * Long.BYTES + 1;
+    /** Position des champs lus par {@link #decodeSummary}, dans l'ordre d'{@link #encode} */
+    private static final int LAST_ACTION_OFFSET = 3 * Long.BYTES + 2 * Integer.BYTES
+            + 1 + Integer.BYTES + 1 + 1 + Integer.BYTES + 2 * Long.BYTES;
+    private static final int FINISHED_AT_OFFSET = LAST_ACTION_OFFSET + Long.BYTES;
+    private static final int STATUS_OFFSET = FINISHED_AT_OFFSET + Long.BYTES;
+    public static final int MAX_MOVES = 120;
+    public static final int MAX_BYTES = FIXED_BYTES + 2 * SHEET_BYTES + Short.BYTES + MAX_MOVES;
+
+    private final ScoreService scoreService;
+
+    public int encodedSize(GameState state) {
+        return FIXED_BYTES + state.getSheets().size() * SHEET_BYTES + Short.BYTES + state.getMoveLog().size();
+    }
+
+    public void encode(GameState state, ByteBuffer data) {
+        List<ColonneScore> sheets = state.getSheets();
+        byte[] moves = state.getMoveLog().toByteArray();
+        if (moves.length > MAX_MOVES) {
+            throw new IllegalStateException("Trop de coups pour la partie " + state.getPartieId());
+        }
+        data.putLong(state.getPartieId());
+        data.putLong(state.getFirstPlayerId()).putInt(state.getFirstExtraYams());
+        data.putLong(state.getSecondPlayerId()).putInt(state.getSecondExtraYams());
+        data.put((byte) state.getCurrentPlayerIndex()).putInt(state.getDice())
+                .put((byte) state.getLockMask()).put((byte) state.getRollCount()).putInt(state.getTurnNumber());
+        data.putLong(state.getTurnStartedAt()).putLong(state.getTurnDeadlineAt())
+                .putLong(state.getLastActionAt()).putLong(state.getFinishedAt());
+        data.put(state.getStatus() == null ? -1 : (byte) state.getStatus().ordinal());
+        data.putLong(state.getVersion()).putLong(state.getSheetsVersion())
+                .putLong(state.getRngSeed()).putLong(state.getRngState());
+        data.put((byte) sheets.size());
+        for (ColonneScore sheet : sheets) {
+            data.putLong(sheet.getId()).putLong(sheet.getIdJoueur());
+            for (Category category : CATEGORIES) {
+                Integer value = scoreService.categoryScore(sheet, category);
+                data.putShort(value == null ? -1 : value.shortValue());
+            }
+        }
+        data.putShort((short) moves.length).put(moves);
+    }
+
+    /** Lit les champs du cycle de vie à leur position, sans décoder le reste ni déplacer {@code data} */
+    public GameStateManager.Summary decodeSummary(ByteBuffer data) {
+        int start = data.position();
+        byte status = data.get(start + STATUS_OFFSET);
+        return new GameStateManager.Summary(data.getLong(start), status < 0 ? null : STATUSES[status],
+                data.getLong(start + LAST_ACTION_OFFSET), data.getLong(start + FINISHED_AT_OFFSET));
+    }
+
+    public GameState decode(ByteBuffer data) {
+        GameState state = GameState.builder()
+                .partieId(data.getLong())
+                .firstPlayerId(data.getLong())
+                .firstExtraYams(data.getInt())
+                .secondPlayerId(data.getLong())
+                .secondExtraYams(data.getInt())
+                .currentPlayerIndex(data.get())
+                .dice(data.getInt())
+                .lockMask(data.get())
+                .rollCount(data.get())
+                .turnNumber(data.getInt())
+                .turnStartedAt(data.getLong())
+                .turnDeadlineAt(data.getLong())
+                .lastActionAt(data.getLong())
+                .finishedAt(data.getLong())
+                .build();
+        byte status = data.get();
+        state.setStatus(status < 0 ? null : STATUSES[status]);
+        state.setVersion(data.getLong());
+        state.setSheetsVersion(data.getLong());
+        state.setRngSeed(data.getLong());
+        state.setRngState(data.getLong());
+        int sheetCount = data.get();
+        List<ColonneScore> sheets = new ArrayList<>(sheetCount);
+        for (int i = 0; i < sheetCount; i++) {
+            ColonneScore sheet = ColonneScore.builder()
+                    .id(data.getLong()).idPartie(state.getPartieId()).idJoueur(data.getLong()).build();
+            for (Category category : CATEGORIES) {
+                short value = data.getShort();
+                if (value >= 0) {
+                    scoreService.setCategoryScore(sheet, category, value);
+                }
+            }
+            scoreService.recomputeTotals(sheet, state.extraYams(sheet.getIdJoueur()));
+            sheets.add(sheet);
+        }
+        byte[] moves = new byte[data.getShort()];
+        data.get(moves);
+        state.setSheets(List.copyOf(sheets));
+        state.setMoveLog(MoveLog.of(moves));
+        return state;
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.entity.Parties;
+import com.example.jee.examen.enums.PartieStatus;
+import com.example.jee.examen.enums.RuntimeGameStatus;
+import com.example.jee.examen.repository.PartiesRepository;
+import com.example.jee.examen.runtime.GameState;
+import com.example.jee.examen.runtime.MoveJournal;
+import com.example.jee.examen.runtime.TurnStartedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reprise des parties en cours après un redémarrage. Chaque changement d'état d'une partie est ajouté
+ * au {@link MoveJournal} sous forme d'état complet encodé par {@link GameStateCodec} ;
+ * un instantané périodique des parties vivantes permet de supprimer les anciens segments.
+ * <p>
+ * Au démarrage, l'instantané puis les segments suivants sont relus (le dernier état de chaque partie
+ * fait foi) et les parties encore {@code EN_COURS} en base sont remises en mémoire avec un nouveau
+ * délai de tour. Les parties {@code EN_COURS} sans état dans le journal sont déclarées ABANDON.
+ * Désactivé tant que {@code app.journal.dir} est vide ; n'a de sens qu'avec une base persistante.
+ */
+@Slf4j
+@Component
+public class GameStateJournal implements SmartInitializingSingleton {
+
+    /**
+     * Premier octet de chaque enregistrement. {@code 4} : état complet, suivi de {@link GameStateCodec#encode}
+     * (l'id de partie en tête). {@code 2} : fin de partie, suivi de l'id de partie sur 8 octets. Les autres
+     * types, écrits par des versions précédentes, sont ignorés à la relecture.
+     */
+    private static final byte STATE_RECORD = 4;
+    private static final byte END_RECORD = 2;
+
+    private final GameStateManager gameStateManager;
+    private final GameCommandExecutor gameCommands;
+    private final PartiesRepository partiesRepository;
+    private final PseudoDirectory pseudoDirectory;
+    private final GameStateCodec gameStateCodec;
+    private final ScoreSheetWriter scoreSheetWriter;
+    private final TurnTimeoutScheduler turnTimeoutScheduler;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final Path directory;
+    private final boolean fsync;
+
+    private volatile MoveJournal journal;
+    private final List<GameState> recovered = new ArrayList<>();
+
+    public GameStateJournal(GameStateManager gameStateManager,
+                            GameCommandExecutor gameCommands,
+                            PartiesRepository partiesRepository,
+                            PseudoDirectory pseudoDirectory,
+                            GameStateCodec gameStateCodec,
+                            ScoreSheetWriter scoreSheetWriter,
+                            TurnTimeoutScheduler turnTimeoutScheduler,
+                            ApplicationEventPublisher applicationEventPublisher,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.journal.dir:}") String directory,
+                            @Value("${app.journal.fsync:true}") boolean fsync) {
+        this.gameStateManager = gameStateManager;
+        this.gameCommands = gameCommands;
+        this.partiesRepository = partiesRepository;
+        this.pseudoDirectory = pseudoDirectory;
+        this.gameStateCodec = gameStateCodec;
+        this.scoreSheetWriter = scoreSheetWriter;
+        this.turnTimeoutScheduler = turnTimeoutScheduler;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.directory = directory.isBlank() ? null : Path.of(directory);
+        this.fsync = fsync;
+    }
+
+    /** Avant le démarrage du serveur web : aucune requête ne voit une partie en cours de reprise */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (directory == null) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            Map<Long, ByteBuffer> latest = new LinkedHashMap<>();
+            long base = MoveJournal.readSnapshot(directory, record -> keepLatest(latest, record));
+            long lastSegment = MoveJournal.replay(directory, base, record -> keepLatest(latest, record));
+            restore(latest);
+
+            long firstSegment = Math.max(base, lastSegment + 1);
+            MoveJournal.writeSnapshot(directory, firstSegment, recovered.stream().map(this::encode).toList());
+            MoveJournal.deleteSegmentsBefore(directory, firstSegment);
+            journal = new MoveJournal(directory, firstSegment, fsync);
+            Gauge.builder("yam.journal.pending", journal, MoveJournal::pending)
+                    .description("Enregistrements du journal des coups en attente d'écriture")
+                    .register(meterRegistry);
+            log.info("Journal des coups {} : {} partie(s) reprise(s) en {} ms",
+                    directory, recovered.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Impossible de relire le journal des coups " + directory, ex);
+        }
+    }
+
+    /** Relance les bots dont c'est le tour, une fois les écouteurs d'événements en place */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeRecoveredTurns() {
+        for (GameState state : recovered) {
+            applicationEventPublisher.publishEvent(new TurnStartedEvent(state.getPartieId(), state.getCurrentPlayerId()));
+        }
+        recovered.clear();
+    }
+
+    /** Appelé par le fil d'exécution de la partie après chaque changement d'état */
+    public void record(GameState state) {
+        MoveJournal current = journal;
+        if (current != null) {
+            current.append(encode(state));
+        }
+    }
+
+    /** Partie terminée ou abandonnée : elle ne sera plus reprise */
+    public void recordEnd(Long gameId) {
+        MoveJournal current = journal;
+        if (current != null) {
+            current.append(ByteBuffer.allocate(1 + Long.BYTES).put(END_RECORD).putLong(gameId).array());
+        }
+    }
+
+    /**
+     * Instantané des parties vivantes : le journal passe d'abord au segment suivant, puis chaque état
+     * est encodé dans la file de sa partie, donc après tous ses enregistrements du segment précédent.
+     */
+    @Scheduled(initialDelayString = "${app.journal.snapshot-interval-ms:60000}",
+            fixedDelayString = "${app.journal.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        MoveJournal current = journal;
+        if (current == null) {
+            return;
+        }
+        try {
+            long base = current.rotate().get(10, TimeUnit.SECONDS);
+            List<CompletableFuture<byte[]>> encoded = new ArrayList<>();
+            gameStateManager.forEachSummary(summary -> {
+                if (summary.status() != RuntimeGameStatus.FINISHED) {
+                    // Relu dans la file de la partie, seul endroit où l'état est cohérent
+                    Long gameId = summary.gameId();
+                    encoded.add(gameCommands.submit(gameId, () -> gameStateManager.get(gameId)
+                            .filter(live -> live.getStatus() != RuntimeGameStatus.FINISHED)
+                            .map(this::encode)
+                            .orElse(null)));
+                }
+            });
+            List<byte[]> records = new ArrayList<>(encoded.size());
+            for (CompletableFuture<byte[]> future : encoded) {
+                byte[] record = future.get(10, TimeUnit.SECONDS);
+                if (record != null) {
+                    records.add(record);
+                }
+            }
+            MoveJournal.writeSnapshot(directory, base, records);
+            MoveJournal.deleteSegmentsBefore(directory, base);
+        } catch (Exception ex) {
+            // Les segments sont conservés : la reprise reste possible à partir de l'instantané précédent
+            log.warn("Échec de l'instantané du journal des coups", ex);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        MoveJournal current = journal;
+        if (current != null) {
+            journal = null;
+            current.close();
+        }
+    }
+
+    private static void keepLatest(Map<Long, ByteBuffer> latest, ByteBuffer record) {
+        byte type = record.get(0);
+        long gameId = record.getLong(1);
+        if (type == END_RECORD) {
+            latest.remove(gameId);
+        } else if (type == STATE_RECORD) {
+            latest.put(gameId, record);
+        }
+    }
+
+    private void restore(Map<Long, ByteBuffer> latest) {
+        Map<Long, Parties> inProgress = new HashMap<>();
+        for (Parties partie : partiesRepository.findByStatus(PartieStatus.EN_COURS)) {
+            inProgress.put(partie.getId(), partie);
+        }
+        long now = System.currentTimeMillis();
+        for (ByteBuffer record : latest.values()) {
+            GameState state = decode(record);
+            if (inProgress.remove(state.getPartieId()) == null) {
+                continue;
+            }
+            // Le temps d'arrêt du serveur n'est pas décompté : le tour courant repart pour une durée complète
+            pseudoDirectory.resolve(state);
+            state.setTurnStartedAt(now);
+            state.setTurnDeadlineAt(now + GameService.TURN_DURATION_MS);
+            state.setLastActionAt(now);
+            state.setStatus(RuntimeGameStatus.IN_PROGRESS);
+            state.setVersion(state.getVersion() + 1);
+            // La base peut être en retard sur le journal (écriture différée des feuilles)
+            state.getSheets().forEach(scoreSheetWriter::markDirty);
+            gameStateManager.put(state.getPartieId(), state);
+            turnTimeoutScheduler.schedule(state);
+            recovered.add(state);
+        }
+        if (!inProgress.isEmpty()) {
+            inProgress.values().forEach(partie -> partie.setStatus(PartieStatus.ABANDON));
+            partiesRepository.saveAll(inProgress.values());
+            log.warn("{} partie(s) EN_COURS sans état dans le journal déclarée(s) ABANDON", inProgress.size());
+        }
+    }
+
+    private byte[] encode(GameState state) {
+        ByteBuffer data = ByteBuffer.allocate(1 + gameStateCodec.encodedSize(state));
+        gameStateCodec.encode(state, data.put(STATE_RECORD));
+        return data.array();
+    }
+
+    private GameState decode(ByteBuffer data) {
+        return gameStateCodec.decode(data.position(1));
+    }
+}
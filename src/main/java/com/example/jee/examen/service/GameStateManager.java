@@ -1,26 +1,60 @@
 package com.example.jee.examen.service;
 
+import com.example.jee.examen.enums.RuntimeGameStatus;
 import com.example.jee.examen.runtime.GameState;
-import org.springframework.stereotype.Component;
 
-import java.util.Map;
+import java.util.Collection;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
-@Component
-public class GameStateManager {
+/**
+ * Stockage des parties vivantes, choisi par {@code app.games.store} : {@code heap} (défaut, les états
+ * sont des objets partagés), {@code offheap} (enregistrements de taille fixe hors du tas) ou {@code jdbc}
+ * (table partagée par tous les serveurs).
+ * <p>
+ * Un état obtenu par {@link #get} dans une commande de la partie ({@link #withinCommand}) peut être
+ * modifié directement : il est réécrit à la fin de la commande. Hors commande, l'état n'est garanti
+ * qu'en lecture.
+ */
+public interface GameStateManager {
 
-    private final Map<Long, GameState> states = new ConcurrentHashMap<>();
+    /** Champs d'un état utiles à son cycle de vie (éviction, abandon, instantané du journal) */
+    record Summary(long gameId, RuntimeGameStatus status, long lastActionAt, long finishedAt) {
 
-    public Optional<GameState> get(Long gameId) {
-        return Optional.ofNullable(states.get(gameId));
+        public static Summary of(GameState state) {
+            return new Summary(state.getPartieId(), state.getStatus(), state.getLastActionAt(), state.getFinishedAt());
+        }
     }
 
-    public void put(Long gameId, GameState gameState) {
-        states.put(gameId, gameState);
+    Optional<GameState> get(Long gameId);
+
+    void put(Long gameId, GameState gameState);
+
+    void remove(Long gameId);
+
+    boolean contains(Long gameId);
+
+    /** Parcours en lecture seule des parties présentes */
+    Collection<GameState> all();
+
+    /**
+     * Parcourt les parties présentes sans construire leurs états (ni feuilles, ni pseudos) : le coût ne
+     * dépend pas de la taille des parties
+     */
+    default void forEachSummary(Consumer<Summary> action) {
+        for (GameState state : all()) {
+            action.accept(Summary.of(state));
+        }
     }
 
-    public void remove(Long gameId) {
-        states.remove(gameId);
+    int size();
+
+    /** Mémoire du tas occupée par les états, pour la métrique */
+    long estimatedHeapBytes();
+
+    /** Exécute une commande de {@link GameCommandExecutor} ; les états lus pendant la commande y sont réécrits */
+    default <T> T withinCommand(Supplier<T> command) {
+        return command.get();
     }
 }
@@ -0,0 +1,87 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.enums.RuntimeGameStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Cycle de vie des états en mémoire : les parties terminées sont évincées de {@link GameStateManager}
+ * après un délai de grâce (le temps que les clients récupèrent l'état final), les parties sans action
+ * de joueur depuis plusieurs tours sont déclarées abandonnées.
+ */
+@Slf4j
+@Component
+public class GameStateSweeper {
+
+    private final GameStateManager gameStateManager;
+    private final GameService gameService;
+    private final GameCommandExecutor gameCommands;
+    private final long finishedGraceMs;
+    private final long abandonAfterMs;
+    private final Counter evictedCounter;
+    private final Counter abandonedCounter;
+
+    public GameStateSweeper(GameStateManager gameStateManager,
+                            GameService gameService,
+                            GameCommandExecutor gameCommands,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.games.finished-grace-ms:60000}") long finishedGraceMs,
+                            @Value("${app.games.abandon-after-turns:4}") int abandonAfterTurns) {
+        this.gameStateManager = gameStateManager;
+        this.gameService = gameService;
+        this.gameCommands = gameCommands;
+        this.finishedGraceMs = finishedGraceMs;
+        this.abandonAfterMs = abandonAfterTurns * GameService.TURN_DURATION_MS;
+
+        Gauge.builder("yam.games.live", gameStateManager, GameStateManager::size)
+                .description("Parties présentes en mémoire")
+                .register(meterRegistry);
+        Gauge.builder("yam.games.heap.estimated", gameStateManager, GameStateManager::estimatedHeapBytes)
+                .description("Estimation de la mémoire occupée par les états de partie")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.evictedCounter = Counter.builder("yam.games.evicted")
+                .description("Parties terminées retirées de la mémoire")
+                .register(meterRegistry);
+        this.abandonedCounter = Counter.builder("yam.games.abandoned")
+                .description("Parties déclarées abandonnées faute d'activité")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.games.sweep-interval-ms:10000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        Set<Long> liveGameIds = new HashSet<>();
+        gameStateManager.forEachSummary(summary -> {
+            Long gameId = summary.gameId();
+            boolean finished = summary.status() == RuntimeGameStatus.FINISHED;
+            if (finished && summary.finishedAt() + finishedGraceMs < now) {
+                gameStateManager.remove(gameId);
+                gameCommands.release(gameId);
+                evictedCounter.increment();
+                return;
+            }
+            liveGameIds.add(gameId);
+            long inactiveSince = now - abandonAfterMs;
+            if (!finished && summary.lastActionAt() < inactiveSince) {
+                gameCommands.submit(gameId, () -> gameService.abandonGame(gameId, inactiveSince))
+                        .whenComplete((abandoned, ex) -> {
+                            if (ex != null) {
+                                log.warn("Échec de l'abandon de la partie {}", gameId, ex);
+                            } else if (abandoned) {
+                                abandonedCounter.increment();
+                            }
+                        });
+            }
+        });
+        gameCommands.releaseAbsent(liveGameIds);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.dto.RollResponse;
+import com.example.jee.examen.entity.ColonneScore;
+import com.example.jee.examen.enums.Category;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/** Marque dès le premier lancer la catégorie libre qui rapporte le plus (égalité : ordre de la feuille) */
+@Component
+public class GreedyBotStrategy implements BotStrategy {
+
+    @Override
+    public String name() {
+        return "greedy";
+    }
+
+    @Override
+    public Move nextMove(RollResponse roll, ColonneScore sheet) {
+        return Move.score(bestImmediate(roll.getPossibleScores()));
+    }
+
+    static Category bestImmediate(Map<Category, Integer> possibleScores) {
+        Category best = null;
+        int bestScore = -1;
+        for (Map.Entry<Category, Integer> entry : possibleScores.entrySet()) {
+            if (entry.getValue() > bestScore) {
+                bestScore = entry.getValue();
+                best = entry.getKey();
+            }
+        }
+        return best;
+    }
+}
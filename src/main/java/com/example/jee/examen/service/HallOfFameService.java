@@ -1,31 +1,127 @@
 package com.example.jee.examen.service;
 
 import com.example.jee.examen.dto.HallOfFameResponse;
+import com.example.jee.examen.dto.ScoreSheetDto;
 import com.example.jee.examen.enums.PartieStatus;
 import com.example.jee.examen.repository.ColonneScoreRepository;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
 
+/**
+ * Classement matérialisé en mémoire : les {@link #MAX_LIMIT} meilleurs scores sont chargés au démarrage,
+ * puis mis à jour à chaque fin de partie. GET /halloffame ne touche plus la base.
+ * <p>
+ * Avec plusieurs serveurs ({@code app.cluster.nodes}, ou une file ou des parties stockées en base), chacun ne
+ * voit passer que les parties qu'il termine : le classement est donc rechargé depuis la base toutes les
+ * {@code app.halloffame.refresh-interval-ms}. Un serveur seul ne recharge jamais.
+ */
 @Service
-@RequiredArgsConstructor
 public class HallOfFameService {
 
+    private static final int MAX_LIMIT = 100;
+
+    private static final Comparator<HallOfFameRow> RANKING = Comparator
+            .comparing(HallOfFameRow::getScore, Comparator.reverseOrder())
+            .thenComparing(HallOfFameRow::getPartieId)
+            .thenComparing(HallOfFameRow::getPseudo);
+
     private final ColonneScoreRepository colonneScoreRepository;
 
-    public HallOfFameResponse top(int limit) {
-        int normalizedLimit = Math.max(1, Math.min(limit, 100));
-        List<HallOfFameRow> rows = colonneScoreRepository.findTopByPartieStatus(
-                PartieStatus.TERMINE,
-                PageRequest.of(0, normalizedLimit)
-        );
+    private final boolean shared;
+
+    private volatile NavigableSet<HallOfFameRow> ranking = new ConcurrentSkipListSet<>(RANKING);
+
+    public HallOfFameService(ColonneScoreRepository colonneScoreRepository,
+                             @Value("${app.cluster.nodes:}") List<String> clusterNodes,
+                             @Value("${app.games.store:heap}") String gamesStore,
+                             @Value("${app.lobby.store:memory}") String lobbyStore) {
+        this.colonneScoreRepository = colonneScoreRepository;
+        this.shared = !clusterNodes.isEmpty() || "jdbc".equals(gamesStore) || "jdbc".equals(lobbyStore);
+    }
+
+    @PostConstruct
+    void load() {
+        rebuild();
+    }
+
+    /** Recharge les parties terminées par les autres serveurs ; inutile sur un serveur seul */
+    @Scheduled(initialDelayString = "${app.halloffame.refresh-interval-ms:30000}",
+            fixedDelayString = "${app.halloffame.refresh-interval-ms:30000}")
+    void refresh() {
+        if (shared) {
+            rebuild();
+        }
+    }
 
-        List<HallOfFameResponse.Entry> entries = rows.stream()
-                .map(r -> new HallOfFameResponse.Entry(r.getPartieId(), r.getPseudo(), r.getScore()))
-                .toList();
+    /**
+     * Remplace le classement d'un bloc : les lectures concurrentes ne voient jamais un classement partiel.
+     * Le classement remplacé est fusionné dans le nouveau, qui garde ainsi les parties insérées pendant la
+     * requête ; une insertion arrivée après la fusion est rejouée par {@link #insert}.
+     */
+    void rebuild() {
+        NavigableSet<HallOfFameRow> rebuilt = new ConcurrentSkipListSet<>(RANKING);
+        rebuilt.addAll(colonneScoreRepository.findTopByPartieStatus(
+                PartieStatus.TERMINE,
+                PageRequest.of(0, MAX_LIMIT)
+        ));
+        NavigableSet<HallOfFameRow> previous = ranking;
+        ranking = rebuilt;
+        rebuilt.addAll(previous);
+        trim(rebuilt);
+    }
 
+    public HallOfFameResponse top(int limit) {
+        int normalizedLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<HallOfFameResponse.Entry> entries = new ArrayList<>(normalizedLimit);
+        Iterator<HallOfFameRow> rows = ranking.iterator();
+        while (entries.size() < normalizedLimit && rows.hasNext()) {
+            HallOfFameRow r = rows.next();
+            entries.add(new HallOfFameResponse.Entry(r.getPartieId(), r.getPseudo(), r.getScore()));
+        }
         return new HallOfFameResponse(entries);
     }
+
+    /** Intègre les feuilles d'une partie terminée, après le commit de la transaction courante */
+    public void recordFinishedGame(Long partieId, List<ScoreSheetDto> sheets) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    insert(partieId, sheets);
+                }
+            });
+        } else {
+            insert(partieId, sheets);
+        }
+    }
+
+    /** Recommence sur le nouveau classement s'il a été remplacé pendant l'ajout (ajouts idempotents) */
+    private void insert(Long partieId, List<ScoreSheetDto> sheets) {
+        NavigableSet<HallOfFameRow> current;
+        do {
+            current = ranking;
+            for (ScoreSheetDto sheet : sheets) {
+                current.add(new HallOfFameRow(partieId, sheet.getPseudo(), sheet.getScoreTotal()));
+            }
+            trim(current);
+        } while (current != ranking);
+    }
+
+    private static void trim(NavigableSet<HallOfFameRow> rows) {
+        while (rows.size() > MAX_LIMIT) {
+            rows.pollLast();
+        }
+    }
 }
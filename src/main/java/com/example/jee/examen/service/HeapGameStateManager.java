@@ -0,0 +1,56 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.runtime.GameState;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Les états sont les objets eux-mêmes : une modification est visible sans réécriture */
+@Component
+@ConditionalOnProperty(name = "app.games.store", havingValue = "heap", matchIfMissing = true)
+public class HeapGameStateManager implements GameStateManager {
+
+    /** Ordre de grandeur d'un GameState avec ses deux feuilles de score, pour la métrique mémoire */
+    static final long ESTIMATED_BYTES_PER_STATE = 600L;
+
+    private final Map<Long, GameState> states = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<GameState> get(Long gameId) {
+        return Optional.ofNullable(states.get(gameId));
+    }
+
+    @Override
+    public void put(Long gameId, GameState gameState) {
+        states.put(gameId, gameState);
+    }
+
+    @Override
+    public void remove(Long gameId) {
+        states.remove(gameId);
+    }
+
+    @Override
+    public boolean contains(Long gameId) {
+        return states.containsKey(gameId);
+    }
+
+    @Override
+    public Collection<GameState> all() {
+        return states.values();
+    }
+
+    @Override
+    public int size() {
+        return states.size();
+    }
+
+    @Override
+    public long estimatedHeapBytes() {
+        return states.size() * ESTIMATED_BYTES_PER_STATE;
+    }
+}
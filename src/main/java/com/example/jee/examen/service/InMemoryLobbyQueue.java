@@ -0,0 +1,190 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.runtime.LobbyEntry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * File sans verrou global : les joueurs prêts sont rangés par tranche de {@link #BUCKET_WIDTH} points de cote
+ * dans une {@link ConcurrentSkipListMap}, chaque tranche étant une file FIFO concurrente. Une entrée est
+ * réservée par CAS sur son drapeau {@code claimed}. Chercher un adversaire parcourt les tranches voisines,
+ * des plus proches aux plus lointaines dans la fenêtre demandée : O(log n) pour s'y placer, puis un nombre
+ * de tranches borné par la fenêtre.
+ * <p>
+ * Les entrées sont aussi chaînées par ordre d'arrivée : les passages périodiques les parcourent sur place,
+ * des plus anciennes aux plus récentes, sans copie ni tri. Une entrée reste dans sa tranche et dans cet
+ * ordre jusqu'à ce qu'un parcours la trouve appariée, annulée ou expirée.
+ */
+@Component
+@ConditionalOnProperty(name = "app.lobby.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryLobbyQueue implements LobbyQueue {
+
+    static final int BUCKET_WIDTH = 50;
+
+    private final Map<Long, LobbyEntry> waitingPlayers = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Integer, Deque<LobbyEntry>> buckets = new ConcurrentSkipListMap<>();
+    /** Entrées par ordre d'arrivée, donc de {@code readyAt} croissant (à la milliseconde près) */
+    private final Queue<LobbyEntry> arrivals = new ConcurrentLinkedQueue<>();
+
+    /** Stocke les gameId pour les joueurs matchés qui n'ont pas encore récupéré leur résultat */
+    private final Map<Long, Long> pendingGameIds = new ConcurrentHashMap<>();
+
+    @Override
+    public LobbyEntry find(Long playerId) {
+        return waitingPlayers.get(playerId);
+    }
+
+    @Override
+    public LobbyEntry join(Long playerId, int elo, long now, long expiresAt) {
+        LobbyEntry created = LobbyEntry.builder()
+                .playerId(playerId)
+                .elo(elo)
+                .readyAt(now)
+                .expiresAt(expiresAt)
+                .build();
+        LobbyEntry entry = waitingPlayers.putIfAbsent(playerId, created);
+        if (entry != null) {
+            return entry;
+        }
+        buckets.computeIfAbsent(bucketOf(elo), key -> new ConcurrentLinkedDeque<>()).offerLast(created);
+        arrivals.offer(created);
+        return created;
+    }
+
+    @Override
+    public LobbyEntry claimNear(LobbyEntry entry, int window, long now) {
+        int home = bucketOf(entry.getElo());
+        int min = bucketOf(entry.getElo() - window);
+        int max = bucketOf(entry.getElo() + window);
+        Integer lower = buckets.floorKey(home);
+        Integer upper = buckets.higherKey(home);
+        while ((lower != null && lower >= min) || (upper != null && upper <= max)) {
+            boolean below = upper == null || upper > max
+                    || (lower != null && lower >= min && home - lower <= upper - home);
+            int key = below ? lower : upper;
+            LobbyEntry opponent = claimIn(buckets.get(key), entry, window, now);
+            if (opponent != null) {
+                return opponent;
+            }
+            if (below) {
+                lower = buckets.lowerKey(key);
+            } else {
+                upper = buckets.higherKey(key);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean claim(LobbyEntry entry) {
+        return entry.getClaimed().compareAndSet(false, true) && waitingPlayers.get(entry.getPlayerId()) == entry;
+    }
+
+    @Override
+    public void release(LobbyEntry entry) {
+        // Le joueur a pu annuler pendant la réservation : l'entrée reste alors réservée
+        if (waitingPlayers.get(entry.getPlayerId()) == entry) {
+            entry.getClaimed().set(false);
+        }
+    }
+
+    @Override
+    public void discard(LobbyEntry entry) {
+        entry.getClaimed().compareAndSet(false, true);
+        waitingPlayers.remove(entry.getPlayerId(), entry);
+    }
+
+    @Override
+    public void forEachWaitingSince(long readyBefore, Consumer<LobbyEntry> action) {
+        long now = System.currentTimeMillis();
+        for (Iterator<LobbyEntry> it = arrivals.iterator(); it.hasNext(); ) {
+            LobbyEntry entry = it.next();
+            if (waitingPlayers.get(entry.getPlayerId()) != entry) {
+                it.remove();
+                removeFromBucket(entry);
+            } else if (entry.getExpiresAt() < now) {
+                if (entry.getClaimed().compareAndSet(false, true)) {
+                    waitingPlayers.remove(entry.getPlayerId(), entry);
+                    it.remove();
+                    removeFromBucket(entry);
+                }
+            } else if (entry.getReadyAt() > readyBefore) {
+                // Les suivantes sont arrivées plus tard
+                return;
+            } else if (!entry.getClaimed().get()) {
+                action.accept(entry);
+            }
+        }
+    }
+
+    @Override
+    public void matched(LobbyEntry entry, Long gameId) {
+        waitingPlayers.remove(entry.getPlayerId(), entry);
+        pendingGameIds.put(entry.getPlayerId(), gameId);
+        entry.getMatch().complete(gameId);
+    }
+
+    @Override
+    public Long takeMatch(Long playerId) {
+        return pendingGameIds.remove(playerId);
+    }
+
+    @Override
+    public void clearMatch(Long playerId, Long gameId) {
+        pendingGameIds.remove(playerId, gameId);
+    }
+
+    @Override
+    public CompletableFuture<Long> matchOf(LobbyEntry entry) {
+        return entry.getMatch();
+    }
+
+    private LobbyEntry claimIn(Deque<LobbyEntry> bucket, LobbyEntry entry, int window, long now) {
+        if (bucket == null) {
+            return null;
+        }
+        for (Iterator<LobbyEntry> it = bucket.iterator(); it.hasNext(); ) {
+            LobbyEntry candidate = it.next();
+            if (waitingPlayers.get(candidate.getPlayerId()) != candidate) {
+                // Apparié, annulé ou expiré
+                it.remove();
+                continue;
+            }
+            if (candidate == entry || Math.abs(candidate.getElo() - entry.getElo()) > window
+                    || !candidate.getClaimed().compareAndSet(false, true)) {
+                continue;
+            }
+            if (candidate.getExpiresAt() < now) {
+                waitingPlayers.remove(candidate.getPlayerId(), candidate);
+                it.remove();
+                continue;
+            }
+            if (waitingPlayers.get(candidate.getPlayerId()) == candidate) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private void removeFromBucket(LobbyEntry entry) {
+        Deque<LobbyEntry> bucket = buckets.get(bucketOf(entry.getElo()));
+        if (bucket != null) {
+            bucket.remove(entry);
+        }
+    }
+
+    private static int bucketOf(int elo) {
+        return Math.floorDiv(elo, BUCKET_WIDTH);
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.runtime.GameState;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.springframework.http.HttpStatus.CONFLICT;
+
+/**
+ * Parties vivantes partagées par tous les serveurs : chaque état est une ligne de {@code etatPartie}
+ * ({@link com.example.jee.examen.entity.EtatPartie}), n'importe quel serveur peut donc traiter n'importe
+ * quelle partie.
+ * <p>
+ * Une commande s'exécute dans une transaction : les états qu'elle a modifiés y sont réécrits à la fin, à
+ * condition que leur révision n'ait pas changé entre-temps. Un état relu sans changement (même encodage
+ * qu'à la lecture) n'est pas réécrit : les lectures concurrentes ne se gênent pas et la révision ne bouge pas. Si un autre serveur a modifié la partie pendant la commande,
+ * celle-ci est annulée en entier (409) ; le routage par id de partie rend ce cas exceptionnel.
+ */
+@Component
+@ConditionalOnProperty(name = "app.games.store", havingValue = "jdbc")
+public class JdbcGameStateManager implements GameStateManager {
+
+    private static final String SELECT_SQL = "select revision, data from etatPartie where id_partie = ?";
+    private static final String UPDATE_SQL = "update etatPartie set revision = revision + 1, data = ? where id_partie = ?";
+    private static final String INSERT_SQL = "insert into etatPartie (id_partie, revision, data) values (?, 0, ?)";
+    private static final String COMPARE_AND_SET_SQL =
+            "update etatPartie set revision = ?, data = ? where id_partie = ? and revision = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final GameStateCodec gameStateCodec;
+    private final PseudoDirectory pseudoDirectory;
+    /** États lus par la commande en cours sur ce thread, avec leur révision et leur encodage ; null hors commande */
+    private final ThreadLocal<Map<Long, Loaded>> commandStates = new ThreadLocal<>();
+
+    private record Loaded(GameState state, long revision, byte[] data) {
+    }
+
+    public JdbcGameStateManager(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                GameStateCodec gameStateCodec,
+                                PseudoDirectory pseudoDirectory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.gameStateCodec = gameStateCodec;
+        this.pseudoDirectory = pseudoDirectory;
+    }
+
+    @Override
+    public Optional<GameState> get(Long gameId) {
+        Map<Long, Loaded> states = commandStates.get();
+        Loaded loaded = states != null ? states.get(gameId) : null;
+        if (loaded == null) {
+            loaded = load(gameId);
+            if (loaded != null && states != null) {
+                states.put(gameId, loaded);
+            }
+        }
+        return Optional.ofNullable(loaded).map(Loaded::state);
+    }
+
+    @Override
+    public void put(Long gameId, GameState gameState) {
+        byte[] data = encode(gameState);
+        if (jdbcTemplate.update(UPDATE_SQL, data, gameId) == 0) {
+            jdbcTemplate.update(INSERT_SQL, gameId, data);
+        }
+        Map<Long, Loaded> states = commandStates.get();
+        if (states != null) {
+            Long revision = jdbcTemplate.queryForObject(
+                    "select revision from etatPartie where id_partie = ?", Long.class, gameId);
+            states.put(gameId, new Loaded(gameState, revision, data));
+        }
+    }
+
+    @Override
+    public void remove(Long gameId) {
+        jdbcTemplate.update("delete from etatPartie where id_partie = ?", gameId);
+    }
+
+    @Override
+    public boolean contains(Long gameId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from etatPartie where id_partie = ?", Integer.class, gameId);
+        return count != null && count > 0;
+    }
+
+    /** Révision courante des parties présentes parmi {@code gameIds}, sans décoder les états */
+    public Map<Long, Long> revisions(Collection<Long> gameIds) {
+        Map<Long, Long> revisions = new HashMap<>();
+        if (gameIds.isEmpty()) {
+            return revisions;
+        }
+        jdbcTemplate.query("select id_partie, revision from etatPartie where id_partie in ("
+                        + String.join(", ", Collections.nCopies(gameIds.size(), "?")) + ")",
+                (RowCallbackHandler) rs -> revisions.put(rs.getLong(1), rs.getLong(2)), gameIds.toArray());
+        return revisions;
+    }
+
+    /** Copies décodées au moment du parcours */
+    @Override
+    public Collection<GameState> all() {
+        List<GameState> states = jdbcTemplate.query("select data from etatPartie",
+                (rs, rowNum) -> gameStateCodec.decode(ByteBuffer.wrap(rs.getBytes(1))));
+        states.forEach(pseudoDirectory::resolve);
+        return states;
+    }
+
+    /** Lit les champs du cycle de vie à leur position dans chaque ligne, sans décoder les états ni leurs pseudos */
+    @Override
+    public void forEachSummary(Consumer<Summary> action) {
+        jdbcTemplate.query("select data from etatPartie",
+                (RowCallbackHandler) rs -> action.accept(gameStateCodec.decodeSummary(ByteBuffer.wrap(rs.getBytes(1)))));
+    }
+
+    @Override
+    public int size() {
+        Integer count = jdbcTemplate.queryForObject("select count(*) from etatPartie", Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public long estimatedHeapBytes() {
+        return 0;
+    }
+
+    @Override
+    public <T> T withinCommand(Supplier<T> command) {
+        if (commandStates.get() != null) {
+            return command.get();
+        }
+        Map<Long, Loaded> states = new HashMap<>(4);
+        commandStates.set(states);
+        try {
+            return transactionTemplate.execute(status -> {
+                T result = command.get();
+                states.forEach(this::writeBack);
+                return result;
+            });
+        } finally {
+            commandStates.remove();
+        }
+    }
+
+    private void writeBack(Long gameId, Loaded loaded) {
+        byte[] data = encode(loaded.state());
+        if (Arrays.equals(data, loaded.data())) {
+            return;
+        }
+        int updated = jdbcTemplate.update(COMPARE_AND_SET_SQL, loaded.revision() + 1, data, gameId, loaded.revision());
+        // Une partie retirée entre-temps n'est pas recréée
+        if (updated == 0 && contains(gameId)) {
+            throw new ResponseStatusException(CONFLICT, "La partie a été modifiée en parallèle, réessayez");
+        }
+    }
+
+    private Loaded load(Long gameId) {
+        List<Loaded> rows = jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> {
+            byte[] data = rs.getBytes(2);
+            return new Loaded(gameStateCodec.decode(ByteBuffer.wrap(data)), rs.getLong(1), data);
+        }, gameId);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Loaded loaded = rows.get(0);
+        pseudoDirectory.resolve(loaded.state());
+        return loaded;
+    }
+
+    private byte[] encode(GameState state) {
+        ByteBuffer data = ByteBuffer.allocate(gameStateCodec.encodedSize(state));
+        gameStateCodec.encode(state, data);
+        return data.array();
+    }
+}
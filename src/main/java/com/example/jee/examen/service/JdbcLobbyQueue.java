@@ -0,0 +1,185 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.runtime.LobbyEntry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * File d'attente partagée par tous les serveurs, dans la table {@code fileAttente}
+ * ({@link com.example.jee.examen.entity.FileAttente}). Une entrée est réservée par une mise à jour
+ * conditionnelle de {@code reserve_le} : un seul serveur l'obtient. Une réservation plus ancienne que
+ * {@link #RESERVATION_TIMEOUT_MS} vient d'un serveur arrêté pendant l'appariement et est ignorée.
+ * <p>
+ * Les long-polls en cours sur ce serveur sont complétés par une relecture périodique de la table,
+ * le joueur pouvant être apparié par un autre serveur.
+ */
+@Component
+@ConditionalOnProperty(name = "app.lobby.store", havingValue = "jdbc")
+public class JdbcLobbyQueue implements LobbyQueue {
+
+    static final long RESERVATION_TIMEOUT_MS = 30_000L;
+    private static final int CLAIM_BATCH = 16;
+
+    private static final RowMapper<LobbyEntry> ENTRY_MAPPER = (rs, rowNum) -> LobbyEntry.builder()
+            .playerId(rs.getLong("id_joueur"))
+            .readyAt(rs.getLong("pret_le"))
+            .expiresAt(rs.getLong("expire_le"))
+            .elo(rs.getInt("elo"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    /** Long-polls en cours sur ce serveur, par joueur */
+    private final Map<Long, CompletableFuture<Long>> waiters = new ConcurrentHashMap<>();
+
+    public JdbcLobbyQueue(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public LobbyEntry find(Long playerId) {
+        List<LobbyEntry> entries = jdbcTemplate.query(
+                "select id_joueur, pret_le, expire_le, elo from fileAttente where id_joueur = ? and id_partie is null",
+                ENTRY_MAPPER, playerId);
+        return entries.isEmpty() ? null : entries.get(0);
+    }
+
+    @Override
+    public LobbyEntry join(Long playerId, int elo, long now, long expiresAt) {
+        try {
+            jdbcTemplate.update("insert into fileAttente (id_joueur, pret_le, expire_le, elo, reserve_le, id_partie) "
+                    + "values (?, ?, ?, ?, 0, null)", playerId, now, expiresAt, elo);
+        } catch (DuplicateKeyException ex) {
+            // Déjà en file, ou apparié et pas encore informé : l'entrée existante fait foi
+            List<LobbyEntry> entries = jdbcTemplate.query(
+                    "select id_joueur, pret_le, expire_le, elo from fileAttente where id_joueur = ?", ENTRY_MAPPER, playerId);
+            if (!entries.isEmpty()) {
+                return entries.get(0);
+            }
+        }
+        return LobbyEntry.builder().playerId(playerId).elo(elo).readyAt(now).expiresAt(expiresAt).build();
+    }
+
+    @Override
+    public LobbyEntry claimNear(LobbyEntry entry, int window, long now) {
+        while (true) {
+            // Index sur elo : seule la fenêtre de cotes est lue
+            List<LobbyEntry> candidates = jdbcTemplate.query(
+                    "select id_joueur, pret_le, expire_le, elo from fileAttente "
+                            + "where elo between ? and ? and id_partie is null and reserve_le < ? and id_joueur <> ? "
+                            + "order by abs(elo - ?), pret_le limit " + CLAIM_BATCH,
+                    ENTRY_MAPPER, entry.getElo() - window, entry.getElo() + window,
+                    now - RESERVATION_TIMEOUT_MS, entry.getPlayerId(), entry.getElo());
+            if (candidates.isEmpty()) {
+                return null;
+            }
+            for (LobbyEntry candidate : candidates) {
+                if (candidate.getExpiresAt() < now) {
+                    discard(candidate);
+                } else if (claim(candidate)) {
+                    return candidate;
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean claim(LobbyEntry entry) {
+        long now = System.currentTimeMillis();
+        return jdbcTemplate.update("update fileAttente set reserve_le = ? "
+                        + "where id_joueur = ? and pret_le = ? and id_partie is null and reserve_le < ?",
+                now, entry.getPlayerId(), entry.getReadyAt(), now - RESERVATION_TIMEOUT_MS) == 1;
+    }
+
+    @Override
+    public void release(LobbyEntry entry) {
+        jdbcTemplate.update("update fileAttente set reserve_le = 0 where id_joueur = ? and pret_le = ? and id_partie is null",
+                entry.getPlayerId(), entry.getReadyAt());
+    }
+
+    @Override
+    public void discard(LobbyEntry entry) {
+        jdbcTemplate.update("delete from fileAttente where id_joueur = ? and pret_le = ? and id_partie is null",
+                entry.getPlayerId(), entry.getReadyAt());
+    }
+
+    @Override
+    public void forEachWaitingSince(long readyBefore, Consumer<LobbyEntry> action) {
+        long now = System.currentTimeMillis();
+        // Liste lue d'abord : les appariements ne gardent pas la connexion du parcours
+        jdbcTemplate.query("select id_joueur, pret_le, expire_le, elo from fileAttente "
+                        + "where id_partie is null and reserve_le < ? and pret_le <= ? and expire_le >= ? order by pret_le",
+                ENTRY_MAPPER, now - RESERVATION_TIMEOUT_MS, readyBefore, now).forEach(action);
+    }
+
+    @Override
+    public void matched(LobbyEntry entry, Long gameId) {
+        // Le joueur a pu annuler pendant la création : il récupère quand même sa partie, comme en mémoire
+        if (jdbcTemplate.update("update fileAttente set id_partie = ?, reserve_le = 0 where id_joueur = ?",
+                gameId, entry.getPlayerId()) == 0) {
+            jdbcTemplate.update("insert into fileAttente (id_joueur, pret_le, expire_le, elo, reserve_le, id_partie) "
+                    + "values (?, ?, ?, ?, 0, ?)", entry.getPlayerId(), entry.getReadyAt(), entry.getExpiresAt(),
+                    entry.getElo(), gameId);
+        }
+        CompletableFuture<Long> waiter = waiters.remove(entry.getPlayerId());
+        if (waiter != null) {
+            waiter.complete(gameId);
+        }
+    }
+
+    @Override
+    public Long takeMatch(Long playerId) {
+        List<Long> gameIds = jdbcTemplate.queryForList(
+                "select id_partie from fileAttente where id_joueur = ? and id_partie is not null", Long.class, playerId);
+        if (gameIds.isEmpty()) {
+            return null;
+        }
+        Long gameId = gameIds.get(0);
+        // Deux appels simultanés du même joueur : un seul retire la ligne
+        return jdbcTemplate.update("delete from fileAttente where id_joueur = ? and id_partie = ?", playerId, gameId) == 1
+                ? gameId
+                : null;
+    }
+
+    @Override
+    public void clearMatch(Long playerId, Long gameId) {
+        jdbcTemplate.update("delete from fileAttente where id_joueur = ? and id_partie = ?", playerId, gameId);
+    }
+
+    @Override
+    public CompletableFuture<Long> matchOf(LobbyEntry entry) {
+        return waiters.computeIfAbsent(entry.getPlayerId(), id -> new CompletableFuture<>());
+    }
+
+    /** Complète les long-polls des joueurs appariés par un autre serveur, oublie ceux qui ne sont plus en file */
+    @Scheduled(fixedDelayString = "${app.lobby.poll-interval-ms:200}")
+    public void pollMatches() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> rows = new HashMap<>();
+        jdbcTemplate.query("select id_joueur, id_partie from fileAttente",
+                (RowCallbackHandler) rs -> rows.put(rs.getLong("id_joueur"), rs.getObject("id_partie", Long.class)));
+        waiters.forEach((playerId, waiter) -> {
+            if (!rows.containsKey(playerId)) {
+                waiters.remove(playerId, waiter);
+                return;
+            }
+            Long gameId = rows.get(playerId);
+            if (gameId != null && waiters.remove(playerId, waiter)) {
+                waiter.complete(gameId);
+            }
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.entity.Joueur;
+import com.example.jee.examen.repository.JoueurRepository;
+import com.example.jee.examen.runtime.BoundedTtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/** Cache borné des joueurs par pseudo, pour éviter un findByPseudo à chaque requête authentifiée */
+@Component
+public class JoueurCache {
+
+    private final JoueurRepository joueurRepository;
+    private final BoundedTtlCache<String, Joueur> byPseudo;
+
+    public JoueurCache(JoueurRepository joueurRepository,
+                       @Value("${app.cache.joueur.max-size:10000}") int maxSize,
+                       @Value("${app.cache.joueur.ttl:10m}") Duration ttl) {
+        this.joueurRepository = joueurRepository;
+        this.byPseudo = new BoundedTtlCache<>(maxSize, ttl);
+    }
+
+    public Optional<Joueur> findByPseudo(String pseudo) {
+        return Optional.ofNullable(byPseudo.get(pseudo, p -> joueurRepository.findByPseudo(p).orElse(null)));
+    }
+
+    /** À appeler dès qu'un joueur est créé ou que son pseudo, son mot de passe ou sa cote change */
+    public void evict(String pseudo) {
+        byPseudo.invalidate(pseudo);
+    }
+}
@@ -1,26 +1,107 @@
 package com.example.jee.examen.service;
 
+import com.example.jee.examen.runtime.BoundedTtlCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
 import java.util.Date;
+import java.util.Optional;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
+    public static final String PLAYER_ID_CLAIM = "uid";
+
     @Value("${app.jwt.secret}")
     private String secret;
 
     @Value("${app.jwt.expiration-ms}")
     private long expirationMs;
 
+    @Value("${app.jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize;
+
+    @Value("${app.jwt.verified-cache.ttl:5m}")
+    private Duration verifiedCacheTtl;
+
+    /** Clé et parser construits une seule fois : décoder le secret à chaque requête coûte inutilement */
+    private SecretKey signInKey;
+    private JwtParser parser;
+
+    /** Tokens déjà vérifiés récemment (désactivé si max-size = 0) */
+    private BoundedTtlCache<String, VerifiedToken> verifiedTokens;
+
+    /** Résultat d'une vérification réussie : signature et expiration contrôlées */
+    @Getter
+    @AllArgsConstructor
+    public static class VerifiedToken {
+        private final String subject;
+        /** null pour les tokens émis avant l'ajout du claim uid */
+        private final Long playerId;
+        private final long expiresAt;
+    }
+
+    @PostConstruct
+    void init() {
+        signInKey = buildSignInKey();
+        parser = Jwts.parser()
+                .verifyWith(signInKey)
+                .build();
+        verifiedTokens = verifiedCacheMaxSize > 0
+                ? new BoundedTtlCache<>(verifiedCacheMaxSize, verifiedCacheTtl)
+                : null;
+    }
+
+    /**
+     * Vérifie le token en une seule passe (parsing, HMAC, expiration) et retourne ses claims utiles,
+     * ou Optional.empty() si le token est invalide ou expiré.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        if (verifiedTokens != null) {
+            VerifiedToken cached = verifiedTokens.getIfPresent(token);
+            if (cached != null) {
+                if (cached.getExpiresAt() > System.currentTimeMillis()) {
+                    return Optional.of(cached);
+                }
+                verifiedTokens.invalidate(token);
+                return Optional.empty();
+            }
+        }
+
+        Claims claims;
+        try {
+            // parseSignedClaims rejette aussi les tokens expirés (ExpiredJwtException)
+            claims = extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (claims.getSubject() == null || claims.getExpiration() == null) {
+            return Optional.empty();
+        }
+
+        VerifiedToken verified = new VerifiedToken(
+                claims.getSubject(),
+                claims.get(PLAYER_ID_CLAIM, Long.class),
+                claims.getExpiration().getTime());
+        if (verifiedTokens != null) {
+            verifiedTokens.put(token, verified);
+        }
+        return Optional.of(verified);
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -30,35 +111,29 @@ public class JwtService {
         return claimResolver.apply(claims);
     }
 
-    public String generateToken(String username) {
+    public String generateToken(String username, Long playerId) {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + expirationMs);
         return Jwts.builder()
                 .subject(username)
+                .claim(PLAYER_ID_CLAIM, playerId)
                 .issuedAt(now)
                 .expiration(expiry)
-                .signWith(getSignInKey())
+                .signWith(signInKey)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractClaim(token, Claims::getExpiration).before(new Date());
+        return verify(token)
+                .map(verified -> verified.getSubject().equals(userDetails.getUsername()))
+                .orElse(false);
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
-    private SecretKey getSignInKey() {
+    private SecretKey buildSignInKey() {
         byte[] keyBytes;
         try {
             keyBytes = Decoders.BASE64.decode(secret);
@@ -0,0 +1,54 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.runtime.LobbyEntry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * File d'attente du lobby, choisie par {@code app.lobby.store} : {@code memory} (défaut, propre à un
+ * serveur) ou {@code jdbc} (partagée par tous les serveurs). Une entrée est réservée avant l'appariement,
+ * la création de la partie se fait hors de toute section critique. Les adversaires sont cherchés par
+ * cote Elo ({@link #claimNear}).
+ */
+public interface LobbyQueue {
+
+    /** Entrée en attente du joueur, null s'il n'attend pas */
+    LobbyEntry find(Long playerId);
+
+    /** Met le joueur en file s'il n'y est pas déjà ; renvoie son entrée */
+    LobbyEntry join(Long playerId, int elo, long now, long expiresAt);
+
+    /**
+     * Réserve une entrée libre autre que {@code entry} dont la cote est à {@code window} points au plus de
+     * la sienne, les plus proches d'abord, en retirant les entrées expirées rencontrées ; null si aucune
+     */
+    LobbyEntry claimNear(LobbyEntry entry, int window, long now);
+
+    /** Réserve une entrée précise ; false si elle est déjà réservée ou n'est plus en file */
+    boolean claim(LobbyEntry entry);
+
+    /** Rend une entrée réservée (création de partie en échec), sauf si le joueur a annulé entre-temps */
+    void release(LobbyEntry entry);
+
+    /** Retire l'entrée (annulation, expiration) */
+    void discard(LobbyEntry entry);
+
+    /**
+     * Passe les entrées libres prêtes depuis {@code readyBefore} ou avant, les plus anciennes d'abord, en
+     * retirant les entrées expirées rencontrées
+     */
+    void forEachWaitingSince(long readyBefore, Consumer<LobbyEntry> action);
+
+    /** Enregistre la partie d'une entrée réservée et prévient le joueur s'il attend une réponse */
+    void matched(LobbyEntry entry, Long gameId);
+
+    /** Partie obtenue et pas encore récupérée par le joueur, retirée au passage ; null sinon */
+    Long takeMatch(Long playerId);
+
+    /** Retire la partie en attente du joueur si c'est bien {@code gameId} */
+    void clearMatch(Long playerId, Long gameId);
+
+    /** Complété avec la partie quand le joueur est apparié, quel que soit le serveur qui l'apparie */
+    CompletableFuture<Long> matchOf(LobbyEntry entry);
+}
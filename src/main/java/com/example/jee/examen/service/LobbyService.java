@@ -2,82 +2,215 @@ package com.example.jee.examen.service;
 
 import com.example.jee.examen.dto.LobbyReadyResponse;
 import com.example.jee.examen.runtime.LobbyEntry;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.Map;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matchmaking par cote, sans verrou global : les joueurs prêts sont placés dans une {@link LobbyQueue} indexée
+ * par cote Elo et chaque joueur est apparié avec l'adversaire libre le plus proche dans sa fenêtre de recherche.
+ * La fenêtre part de {@code app.lobby.elo-window} points et s'élargit de {@code app.lobby.elo-window-growth}
+ * points par seconde d'attente, jusqu'à {@code app.lobby.elo-window-max} ; les joueurs en attente sont
+ * repassés toutes les {@code app.lobby.match-interval-ms}.
+ * <p>
+ * Une entrée est réservée avant l'appariement, la création de la partie se fait donc hors de toute section
+ * critique et plusieurs paires peuvent être créées en parallèle, sur un ou plusieurs serveurs selon la file ;
+ * chaque partie est démarrée sur le serveur qui la possède ({@link ClusterRouter}). Un joueur qui attend plus
+ * de {@code app.bots.lobby-timeout-ms} est apparié avec un bot.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class LobbyService {
 
     private static final long LOBBY_WAIT_MS = 60_000L;
+    private static final long LONG_POLL_MS = 20_000L;
+
+    private final ClusterRouter clusterRouter;
+    private final BotService botService;
+    private final LobbyQueue lobbyQueue;
+    private final RatingService ratingService;
+    private final long botTimeoutMs;
+    private final int eloWindow;
+    private final int eloWindowGrowth;
+    private final int eloWindowMax;
+
+    public LobbyService(ClusterRouter clusterRouter,
+                        BotService botService,
+                        LobbyQueue lobbyQueue,
+                        RatingService ratingService,
+                        @Value("${app.bots.lobby-timeout-ms:15000}") long botTimeoutMs,
+                        @Value("${app.lobby.elo-window:100}") int eloWindow,
+                        @Value("${app.lobby.elo-window-growth:25}") int eloWindowGrowth,
+                        @Value("${app.lobby.elo-window-max:600}") int eloWindowMax) {
+        this.clusterRouter = clusterRouter;
+        this.botService = botService;
+        this.lobbyQueue = lobbyQueue;
+        this.ratingService = ratingService;
+        this.botTimeoutMs = botTimeoutMs;
+        this.eloWindow = eloWindow;
+        this.eloWindowGrowth = eloWindowGrowth;
+        this.eloWindowMax = eloWindowMax;
+    }
 
-    private final GameService gameService;
+    public LobbyReadyResponse ready(Long playerId) {
+        // Joueur A a été matché pendant qu'il attendait → il récupère son gameId au prochain appel
+        Long pendingGameId = lobbyQueue.takeMatch(playerId);
+        if (pendingGameId != null) {
+            return matched(pendingGameId);
+        }
 
-    private volatile LobbyEntry waitingPlayer;
+        long now = System.currentTimeMillis();
+        LobbyEntry entry = lobbyQueue.find(playerId);
+        if (entry != null && entry.getExpiresAt() < now) {
+            lobbyQueue.discard(entry);
+            entry = null;
+        }
+        if (entry == null) {
+            entry = lobbyQueue.join(playerId, ratingService.eloOf(playerId), now, now + LOBBY_WAIT_MS);
+        }
 
-    /** Stocke les gameId pour les joueurs matchés qui n'ont pas encore récupéré leur résultat */
-    private final Map<Long, Long> pendingGameIds = new ConcurrentHashMap<>();
+        matchPlayer(entry, now);
 
-    public synchronized LobbyReadyResponse ready(Long playerId) {
-        // Joueur A a été matché pendant qu'il attendait → il récupère son gameId au prochain poll
-        Long pendingGameId = pendingGameIds.remove(playerId);
+        pendingGameId = lobbyQueue.takeMatch(playerId);
         if (pendingGameId != null) {
-            return LobbyReadyResponse.builder()
-                    .matched(true)
-                    .gameId(pendingGameId)
-                    .build();
+            return matched(pendingGameId);
         }
+        return waiting(entry, now);
+    }
 
-        long now = System.currentTimeMillis();
-        cleanupIfExpired(now);
-
-        if (waitingPlayer != null && waitingPlayer.getPlayerId().equals(playerId)) {
-            int expiresIn = Math.max(0, (int) ((waitingPlayer.getExpiresAt() - now) / 1000));
-            return LobbyReadyResponse.builder()
-                    .matched(false)
-                    .expiresInSec(expiresIn)
-                    .build();
+    /**
+     * Long-poll : se termine dès que le joueur est apparié, ou après {@link #LONG_POLL_MS}
+     * avec l'état d'attente courant.
+     */
+    public CompletableFuture<LobbyReadyResponse> awaitMatch(Long playerId) {
+        Long pendingGameId = lobbyQueue.takeMatch(playerId);
+        if (pendingGameId != null) {
+            return CompletableFuture.completedFuture(matched(pendingGameId));
         }
 
-        if (waitingPlayer == null) {
-            waitingPlayer = LobbyEntry.builder()
-                    .playerId(playerId)
-                    .readyAt(now)
-                    .expiresAt(now + LOBBY_WAIT_MS)
-                    .build();
-            return LobbyReadyResponse.builder()
-                    .matched(false)
-                    .expiresInSec(60)
-                    .build();
+        LobbyEntry entry = lobbyQueue.find(playerId);
+        if (entry == null) {
+            return CompletableFuture.completedFuture(waiting(null, System.currentTimeMillis()));
         }
 
-        Long opponentId = waitingPlayer.getPlayerId();
-        waitingPlayer = null;
-        Long gameId = gameService.createGame(opponentId, playerId);
+        // Rattrape une paire manquée si deux joueurs se sont mis en file au même instant, fenêtre élargie
+        matchPlayer(entry, System.currentTimeMillis());
 
-        // Stocker le gameId pour que le Joueur A (qui poll) puisse le récupérer
-        pendingGameIds.put(opponentId, gameId);
+        return lobbyQueue.matchOf(entry)
+                .thenApply(gameId -> {
+                    lobbyQueue.clearMatch(playerId, gameId);
+                    return matched(gameId);
+                })
+                .completeOnTimeout(null, LONG_POLL_MS, TimeUnit.MILLISECONDS)
+                .thenApply(response -> response != null ? response : waiting(entry, System.currentTimeMillis()));
+    }
 
-        return LobbyReadyResponse.builder()
-                .matched(true)
-                .gameId(gameId)
-                .build();
+    public void cancelReady(Long playerId) {
+        LobbyEntry entry = lobbyQueue.find(playerId);
+        if (entry != null) {
+            lobbyQueue.discard(entry);
+        }
     }
 
-    public synchronized void cancelReady(Long playerId) {
+    /** Apparie avec un bot les joueurs en attente depuis trop longtemps (0 = désactivé) */
+    @Scheduled(fixedDelayString = "${app.bots.lobby-check-interval-ms:1000}")
+    public void matchWithBots() {
+        if (botTimeoutMs <= 0) {
+            return;
+        }
+        long deadline = System.currentTimeMillis() - botTimeoutMs;
+        lobbyQueue.forEachWaitingSince(deadline, this::matchWithBot);
+    }
+
+    /** Repasse les joueurs en attente, les plus anciens d'abord, avec leur fenêtre élargie */
+    @Scheduled(fixedDelayString = "${app.lobby.match-interval-ms:1000}")
+    public void matchWaitingPlayers() {
         long now = System.currentTimeMillis();
-        cleanupIfExpired(now);
-        if (waitingPlayer != null && waitingPlayer.getPlayerId().equals(playerId)) {
-            waitingPlayer = null;
+        lobbyQueue.forEachWaitingSince(now, entry -> {
+            try {
+                matchPlayer(entry, now);
+            } catch (RuntimeException ex) {
+                // Entrées déjà rendues par matchPlayer ; les joueurs suivants sont tout de même repassés
+                log.warn("Appariement impossible pour le joueur {}", entry.getPlayerId(), ex);
+            }
+        });
+    }
+
+    /** Fenêtre de cotes acceptée pour un joueur qui attend depuis {@code entry.readyAt} */
+    int eloWindow(LobbyEntry entry, long now) {
+        long waitedSec = Math.max(0, (now - entry.getReadyAt()) / 1000);
+        return (int) Math.min(eloWindowMax, eloWindow + waitedSec * eloWindowGrowth);
+    }
+
+    private void matchWithBot(LobbyEntry entry) {
+        if (!lobbyQueue.claim(entry)) {
+            return;
+        }
+        Long gameId;
+        try {
+            gameId = clusterRouter.createGame(entry.getPlayerId(), botService.lobbyOpponent());
+        } catch (RuntimeException ex) {
+            // Le joueur reste en file ; les suivants ont toujours leur bot
+            lobbyQueue.release(entry);
+            log.warn("Appariement avec un bot impossible pour le joueur {}", entry.getPlayerId(), ex);
+            return;
+        }
+        lobbyQueue.matched(entry, gameId);
+    }
+
+    /** En cas d'échec, les entrées réservées sont rendues à la file avant de relancer l'exception */
+    private void matchPlayer(LobbyEntry entry, long now) {
+        if (!lobbyQueue.claim(entry)) {
+            return;
+        }
+        LobbyEntry opponent;
+        try {
+            opponent = lobbyQueue.claimNear(entry, eloWindow(entry, now), now);
+        } catch (RuntimeException ex) {
+            lobbyQueue.release(entry);
+            throw ex;
+        }
+        if (opponent == null) {
+            lobbyQueue.release(entry);
+            return;
+        }
+        // Le joueur arrivé le premier commence
+        if (opponent.getReadyAt() < entry.getReadyAt()) {
+            createMatch(opponent, entry);
+        } else {
+            createMatch(entry, opponent);
         }
     }
 
-    private void cleanupIfExpired(long now) {
-        if (waitingPlayer != null && waitingPlayer.getExpiresAt() < now) {
-            waitingPlayer = null;
+    private void createMatch(LobbyEntry first, LobbyEntry second) {
+        Long gameId;
+        try {
+            gameId = clusterRouter.createGame(first.getPlayerId(), second.getPlayerId());
+        } catch (RuntimeException ex) {
+            lobbyQueue.release(second);
+            lobbyQueue.release(first);
+            throw ex;
         }
+        lobbyQueue.matched(first, gameId);
+        lobbyQueue.matched(second, gameId);
+    }
+
+    private LobbyReadyResponse matched(Long gameId) {
+        return LobbyReadyResponse.builder()
+                .matched(true)
+                .gameId(gameId)
+                .build();
+    }
+
+    private LobbyReadyResponse waiting(LobbyEntry entry, long now) {
+        int expiresIn = entry == null ? 0 : Math.max(0, (int) ((entry.getExpiresAt() - now) / 1000));
+        return LobbyReadyResponse.builder()
+                .matched(false)
+                .expiresInSec(expiresIn)
+                .build();
     }
 }
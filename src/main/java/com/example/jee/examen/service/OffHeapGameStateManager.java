@@ -0,0 +1,166 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.runtime.GameState;
+import com.example.jee.examen.runtime.OffHeapSlab;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Parties vivantes hors du tas : chaque état est un enregistrement de {@link GameStateCodec#MAX_BYTES}
+ * octets dans un {@link OffHeapSlab}. Le tas ne porte plus que l'index et les états en cours d'utilisation,
+ * sa taille et le travail du ramasse-miettes ne dépendent plus du nombre de parties.
+ * <p>
+ * {@link #get} décode une copie. Dans une commande de la partie, la copie est conservée pour les lectures
+ * suivantes de la même commande puis réécrite à sa fin, exceptions comprises, comme l'objet partagé du
+ * stockage en tas ; une copie dont l'encodage n'a pas changé n'est pas réécrite. Le balayage du cycle de vie
+ * ({@link #forEachSummary}) lit quelques champs à leur position sans rien décoder d'autre.
+ */
+@Component
+@ConditionalOnProperty(name = "app.games.store", havingValue = "offheap")
+public class OffHeapGameStateManager implements GameStateManager {
+
+    private final OffHeapSlab slab;
+    private final GameStateCodec gameStateCodec;
+    private final PseudoDirectory pseudoDirectory;
+    /** États lus par la commande en cours sur ce thread, avec leur encodage à la lecture ; null hors commande */
+    private final ThreadLocal<Map<Long, Loaded>> commandStates = new ThreadLocal<>();
+
+    private record Loaded(GameState state, byte[] data) {
+    }
+
+    public OffHeapGameStateManager(GameStateCodec gameStateCodec,
+                                   PseudoDirectory pseudoDirectory,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.games.offheap.records-per-chunk:4096}") int recordsPerChunk) {
+        this.slab = new OffHeapSlab(GameStateCodec.MAX_BYTES, recordsPerChunk);
+        this.gameStateCodec = gameStateCodec;
+        this.pseudoDirectory = pseudoDirectory;
+        Gauge.builder("yam.games.offheap.bytes", slab, OffHeapSlab::offHeapBytes)
+                .description("Mémoire directe réservée pour les états de partie")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<GameState> get(Long gameId) {
+        Map<Long, Loaded> states = commandStates.get();
+        Loaded loaded = states != null ? states.get(gameId) : null;
+        if (loaded == null) {
+            loaded = load(gameId);
+            if (loaded != null && states != null) {
+                states.put(gameId, loaded);
+            }
+        }
+        return Optional.ofNullable(loaded).map(Loaded::state);
+    }
+
+    @Override
+    public void put(Long gameId, GameState gameState) {
+        byte[] encoded = encode(gameState);
+        slab.put(gameId, data -> data.put(encoded));
+        Map<Long, Loaded> states = commandStates.get();
+        if (states != null) {
+            states.put(gameId, new Loaded(gameState, encoded));
+        }
+    }
+
+    @Override
+    public void remove(Long gameId) {
+        slab.remove(gameId);
+    }
+
+    @Override
+    public boolean contains(Long gameId) {
+        return slab.contains(gameId);
+    }
+
+    /** Copies décodées au moment du parcours */
+    @Override
+    public Collection<GameState> all() {
+        List<GameState> states = new ArrayList<>(slab.size());
+        slab.forEachKey(gameId -> {
+            Loaded loaded = load(gameId);
+            if (loaded != null) {
+                states.add(loaded.state());
+            }
+        });
+        return states;
+    }
+
+    @Override
+    public void forEachSummary(Consumer<Summary> action) {
+        slab.forEachKey(gameId -> {
+            Summary summary = slab.read(gameId, gameStateCodec::decodeSummary);
+            if (summary != null) {
+                action.accept(summary);
+            }
+        });
+    }
+
+    @Override
+    public int size() {
+        return slab.size();
+    }
+
+    @Override
+    public long estimatedHeapBytes() {
+        return slab.indexBytes();
+    }
+
+    @Override
+    public <T> T withinCommand(Supplier<T> command) {
+        if (commandStates.get() != null) {
+            return command.get();
+        }
+        Map<Long, Loaded> states = new HashMap<>(4);
+        commandStates.set(states);
+        try {
+            return command.get();
+        } finally {
+            commandStates.remove();
+            states.forEach(this::writeBack);
+        }
+    }
+
+    private void writeBack(Long gameId, Loaded loaded) {
+        byte[] encoded = encode(loaded.state());
+        if (!Arrays.equals(encoded, loaded.data())) {
+            // Une partie retirée entre-temps n'est pas recréée
+            slab.write(gameId, data -> data.put(encoded));
+        }
+    }
+
+    private Loaded load(long gameId) {
+        Loaded loaded = slab.read(gameId, data -> {
+            int start = data.position();
+            GameState state = gameStateCodec.decode(data);
+            byte[] encoded = new byte[data.position() - start];
+            data.get(start, encoded);
+            return new Loaded(state, encoded);
+        });
+        if (loaded != null) {
+            pseudoDirectory.resolve(loaded.state());
+        }
+        return loaded;
+    }
+
+    private byte[] encode(GameState state) {
+        ByteBuffer data = ByteBuffer.allocate(gameStateCodec.encodedSize(state));
+        gameStateCodec.encode(state, data);
+        return data.array();
+    }
+}
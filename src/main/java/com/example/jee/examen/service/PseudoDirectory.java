@@ -0,0 +1,60 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.entity.Joueur;
+import com.example.jee.examen.repository.JoueurRepository;
+import com.example.jee.examen.runtime.GameState;
+import com.example.jee.examen.runtime.BoundedTtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Annuaire id joueur → pseudo partagé par toutes les parties. Les pseudos ne changent pas : une partie
+ * les résout une fois à sa création, les ids absents du cache sont chargés en une seule requête.
+ */
+@Component
+public class PseudoDirectory {
+
+    private final JoueurRepository joueurRepository;
+    private final BoundedTtlCache<Long, String> pseudoById;
+
+    public PseudoDirectory(JoueurRepository joueurRepository,
+                           @Value("${app.cache.pseudo.max-size:10000}") int maxSize,
+                           @Value("${app.cache.pseudo.ttl:1h}") Duration ttl) {
+        this.joueurRepository = joueurRepository;
+        this.pseudoById = new BoundedTtlCache<>(maxSize, ttl);
+    }
+
+    public Map<Long, String> pseudosOf(Collection<Long> playerIds) {
+        Map<Long, String> pseudos = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long playerId : playerIds) {
+            String pseudo = pseudoById.getIfPresent(playerId);
+            if (pseudo != null) {
+                pseudos.put(playerId, pseudo);
+            } else {
+                missing.add(playerId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Joueur joueur : joueurRepository.findAllById(missing)) {
+                pseudoById.put(joueur.getId(), joueur.getPseudo());
+                pseudos.put(joueur.getId(), joueur.getPseudo());
+            }
+        }
+        return pseudos;
+    }
+
+    /** Renseigne les pseudos d'un état décodé (journal, stockage hors tas ou partagé) */
+    public void resolve(GameState state) {
+        Map<Long, String> pseudoById = pseudosOf(state.playerIds());
+        state.setFirstPseudo(pseudoById.get(state.getFirstPlayerId()));
+        state.setSecondPseudo(pseudoById.get(state.getSecondPlayerId()));
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.runtime.BoundedTtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cotes Elo des joueurs (colonne {@code joueur.elo}). Une partie terminée ajuste les deux cotes de
+ * {@code K * (résultat - résultat attendu)}, par incrément en base : un bot qui joue plusieurs parties en
+ * même temps ne perd aucune mise à jour. Les cotes lues par le lobby sont gardées en cache ; ce cache et
+ * les {@link com.example.jee.examen.entity.Joueur} de {@link JoueurCache} sont oubliés après chaque mise à jour.
+ */
+@Service
+public class RatingService {
+
+    public static final int INITIAL_ELO = 1200;
+    static final int K_FACTOR = 32;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JoueurCache joueurCache;
+    private final BoundedTtlCache<Long, Integer> eloById;
+
+    public RatingService(JdbcTemplate jdbcTemplate,
+                         JoueurCache joueurCache,
+                         @Value("${app.cache.elo.max-size:10000}") int maxSize,
+                         @Value("${app.cache.elo.ttl:5m}") Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.joueurCache = joueurCache;
+        this.eloById = new BoundedTtlCache<>(maxSize, ttl);
+    }
+
+    public int eloOf(Long playerId) {
+        Integer elo = eloById.get(playerId, id -> {
+            List<Integer> rows = jdbcTemplate.queryForList("select elo from joueur where id = ?", Integer.class, id);
+            return rows.isEmpty() ? null : rows.get(0);
+        });
+        return elo == null ? INITIAL_ELO : elo;
+    }
+
+    /**
+     * Applique le résultat d'une partie terminée, dans sa transaction ; les cotes en cache sont oubliées
+     * après le commit.
+     *
+     * @param firstResult 1 si le premier joueur gagne, 0.5 en cas d'égalité, 0 s'il perd
+     */
+    public void recordResult(Long firstPlayerId, Long secondPlayerId, double firstResult) {
+        Map<Long, Integer> elos = new HashMap<>(2);
+        List<String> pseudos = new ArrayList<>(2);
+        jdbcTemplate.query("select id, elo, pseudo from joueur where id in (?, ?)", (RowCallbackHandler) rs -> {
+            elos.put(rs.getLong(1), rs.getInt(2));
+            pseudos.add(rs.getString(3));
+        }, firstPlayerId, secondPlayerId);
+        int firstElo = elos.getOrDefault(firstPlayerId, INITIAL_ELO);
+        int secondElo = elos.getOrDefault(secondPlayerId, INITIAL_ELO);
+        int delta = delta(firstElo, secondElo, firstResult);
+        if (delta == 0) {
+            return;
+        }
+        jdbcTemplate.update("update joueur set elo = elo + ? where id = ?", delta, firstPlayerId);
+        jdbcTemplate.update("update joueur set elo = elo - ? where id = ?", delta, secondPlayerId);
+
+        Runnable refresh = () -> {
+            eloById.invalidate(firstPlayerId);
+            eloById.invalidate(secondPlayerId);
+            pseudos.forEach(joueurCache::evict);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh.run();
+                }
+            });
+        } else {
+            refresh.run();
+        }
+    }
+
+    /** Points gagnés par le premier joueur, perdus par le second */
+    static int delta(int firstElo, int secondElo, double firstResult) {
+        double expected = 1.0 / (1.0 + Math.pow(10, (secondElo - firstElo) / 400.0));
+        return (int) Math.round(K_FACTOR * (firstResult - expected));
+    }
+}
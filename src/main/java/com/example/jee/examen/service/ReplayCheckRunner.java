@@ -0,0 +1,51 @@
+package com.example.jee.examen.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+
+/**
+ * Contrôle en masse des parties terminées (profil {@code replay-check}) : toutes les parties
+ * rejouables de la base sont rejouées au démarrage et les écarts journalisés. Avec le profil
+ * {@code soak}, le contrôle porte sur les parties jouées par le banc d'endurance, à sa fin.
+ */
+@Slf4j
+@Component
+@Profile("replay-check")
+public class ReplayCheckRunner {
+
+    private static final int MAX_LOGGED_FAILURES = 20;
+
+    private final ReplayService replayService;
+    private final Environment environment;
+    private final int pageSize;
+
+    public ReplayCheckRunner(ReplayService replayService,
+                             Environment environment,
+                             @Value("${app.replay.page-size:5000}") int pageSize) {
+        this.replayService = replayService;
+        this.environment = environment;
+        this.pageSize = pageSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void runOnStartup() {
+        // Avec le banc d'endurance, le contrôle est lancé par BotSoakHarness une fois les parties jouées
+        if (!environment.acceptsProfiles(Profiles.of("soak"))) {
+            run();
+        }
+    }
+
+    public void run() {
+        ReplayService.BulkVerification result = replayService.verifyAll(pageSize);
+        log.info("Rejeu : {} parties contrôlées en {} ms ({} /s), {} écart(s)", result.checked(), result.elapsedMs(),
+                String.format("%.0f", result.gamesPerSecond()), result.mismatches());
+        result.failures().stream().limit(MAX_LOGGED_FAILURES).forEach(failure ->
+                log.warn("Rejeu non conforme pour la partie {} : {}", failure.gameId(), failure.mismatch()));
+    }
+}
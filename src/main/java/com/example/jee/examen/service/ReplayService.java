@@ -0,0 +1,223 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.dto.ReplayResponse;
+import com.example.jee.examen.entity.ColonneScore;
+import com.example.jee.examen.entity.PartieReplay;
+import com.example.jee.examen.entity.Parties;
+import com.example.jee.examen.enums.Category;
+import com.example.jee.examen.enums.PartieStatus;
+import com.example.jee.examen.repository.ColonneScoreRepository;
+import com.example.jee.examen.repository.PartieReplayRepository;
+import com.example.jee.examen.repository.PartiesRepository;
+import com.example.jee.examen.runtime.GameState;
+import com.example.jee.examen.runtime.MoveLog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+import static org.springframework.http.HttpStatus.*;
+
+/**
+ * Rejeu des parties terminées : la graine des dés et la suite des coups ({@link PartieReplay}) sont
+ * rejouées avec les règles de {@link ScoreService}, et les feuilles obtenues comparées à celles
+ * enregistrées. Sert au contrôle anti-triche et à la non-régression des règles de score.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReplayService {
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final PartieReplayRepository partieReplayRepository;
+    private final PartiesRepository partiesRepository;
+    private final ColonneScoreRepository colonneScoreRepository;
+    private final ScoreService scoreService;
+    private final DiceService diceService;
+
+    /** Résultat du contrôle d'une partie ; {@code mismatch} est null quand le rejeu est conforme */
+    public record Verification(Long gameId, String mismatch) {
+        public boolean matches() {
+            return mismatch == null;
+        }
+    }
+
+    public record BulkVerification(int checked, int mismatches, List<Verification> failures, long elapsedMs) {
+        public double gamesPerSecond() {
+            return elapsedMs == 0 ? checked : checked * 1000.0 / elapsedMs;
+        }
+    }
+
+    /** Enregistré en fin de partie, dans la transaction qui fixe le statut final */
+    public void save(GameState state) {
+        if (!diceService.isReproducible()) {
+            return;
+        }
+        partieReplayRepository.save(PartieReplay.builder()
+                .idPartie(state.getPartieId())
+                .rngSeed(state.getRngSeed())
+                .idJoueur1(state.getFirstPlayerId())
+                .idJoueur2(state.getSecondPlayerId())
+                .moves(state.getMoveLog().toByteArray())
+                .build());
+    }
+
+    public ReplayResponse replay(Long gameId, Long requesterId) {
+        PartieReplay replay = partieReplayRepository.findById(gameId)
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Aucun rejeu pour cette partie"));
+        if (!requesterId.equals(replay.getIdJoueur1()) && !requesterId.equals(replay.getIdJoueur2())) {
+            throw new ResponseStatusException(FORBIDDEN, "Le joueur n'appartient pas à cette partie");
+        }
+        Parties partie = partiesRepository.findById(gameId)
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Partie introuvable"));
+        Verification verification = verify(replay, partie, colonneScoreRepository.findByIdPartieOrderByIdJoueurAsc(gameId));
+
+        List<String> moves = new ArrayList<>(replay.getMoves().length);
+        for (byte move : replay.getMoves()) {
+            moves.add(MoveLog.describe(move));
+        }
+        return ReplayResponse.builder()
+                .gameId(gameId)
+                .rngSeed(replay.getRngSeed())
+                .playerIds(List.of(replay.getIdJoueur1(), replay.getIdJoueur2()))
+                .moves(moves)
+                .verified(verification.matches())
+                .mismatch(verification.mismatch())
+                .build();
+    }
+
+    /**
+     * Contrôle de toutes les parties rejouables, par pages de {@code pageSize} chargées séquentiellement
+     * et rejouées en parallèle.
+     */
+    public BulkVerification verifyAll(int pageSize) {
+        long start = System.nanoTime();
+        int checked = 0;
+        ConcurrentLinkedQueue<Verification> failures = new ConcurrentLinkedQueue<>();
+        long lastId = 0;
+        List<PartieReplay> page;
+        while (!(page = partieReplayRepository.findByIdPartieGreaterThanOrderByIdPartieAsc(
+                lastId, PageRequest.of(0, pageSize))).isEmpty()) {
+            List<Long> ids = page.stream().map(PartieReplay::getIdPartie).toList();
+            Map<Long, Parties> parties = partiesRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Parties::getId, p -> p));
+            Map<Long, List<ColonneScore>> sheets = colonneScoreRepository.findByIdPartieIn(ids).stream()
+                    .collect(Collectors.groupingBy(ColonneScore::getIdPartie));
+            page.parallelStream()
+                    .map(replay -> verify(replay, parties.get(replay.getIdPartie()),
+                            sheets.getOrDefault(replay.getIdPartie(), List.of())))
+                    .filter(verification -> !verification.matches())
+                    .forEach(failures::add);
+            checked += page.size();
+            lastId = ids.get(ids.size() - 1);
+        }
+        List<Verification> sorted = new ArrayList<>(failures);
+        sorted.sort((a, b) -> Long.compare(a.gameId(), b.gameId()));
+        return new BulkVerification(checked, sorted.size(), sorted, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    Verification verify(PartieReplay replay, Parties partie, List<ColonneScore> stored) {
+        Long gameId = replay.getIdPartie();
+        if (partie == null) {
+            return new Verification(gameId, "partie introuvable");
+        }
+        Map<Long, ColonneScore> simulated;
+        try {
+            simulated = simulate(replay);
+        } catch (IllegalStateException ex) {
+            return new Verification(gameId, ex.getMessage());
+        }
+        if (stored.size() != simulated.size()) {
+            return new Verification(gameId, "nombre de feuilles différent");
+        }
+        for (ColonneScore sheet : stored) {
+            ColonneScore expected = simulated.get(sheet.getIdJoueur());
+            if (expected == null) {
+                return new Verification(gameId, "joueur " + sheet.getIdJoueur() + " absent du rejeu");
+            }
+            for (Category category : CATEGORIES) {
+                Integer actual = scoreService.categoryScore(sheet, category);
+                Integer replayed = scoreService.categoryScore(expected, category);
+                if (!Objects.equals(actual, replayed)) {
+                    return new Verification(gameId, "joueur " + sheet.getIdJoueur() + ", " + category
+                            + " : " + actual + " enregistré, " + replayed + " rejoué");
+                }
+            }
+            if (!Objects.equals(sheet.getScoreTotal(), expected.getScoreTotal())) {
+                return new Verification(gameId, "joueur " + sheet.getIdJoueur() + ", total : "
+                        + sheet.getScoreTotal() + " enregistré, " + expected.getScoreTotal() + " rejoué");
+            }
+        }
+        if (partie.getStatus() == PartieStatus.TERMINE) {
+            Long winner = scoreService.winnerId(simulated.values());
+            if (!Objects.equals(winner, partie.getIdVainqueur())) {
+                return new Verification(gameId, "vainqueur " + partie.getIdVainqueur() + " enregistré, " + winner + " rejoué");
+            }
+        }
+        return new Verification(gameId, null);
+    }
+
+    /** Rejoue les coups avec les mêmes règles que {@link GameService} ; feuilles rejouées par joueur */
+    Map<Long, ColonneScore> simulate(PartieReplay replay) {
+        List<Long> playerIds = List.of(replay.getIdJoueur1(), replay.getIdJoueur2());
+        Map<Long, ColonneScore> sheets = new HashMap<>();
+        Map<Long, Integer> extraYams = new HashMap<>();
+        for (Long playerId : playerIds) {
+            sheets.put(playerId, ColonneScore.builder().idPartie(replay.getIdPartie()).idJoueur(playerId).build());
+            extraYams.put(playerId, 0);
+        }
+        GameState rng = GameState.builder().rngState(replay.getRngSeed()).build();
+        int dice = 0;
+        int rollCount = 0;
+        int current = 0;
+
+        for (byte move : replay.getMoves()) {
+            Long playerId = playerIds.get(current);
+            ColonneScore sheet = sheets.get(playerId);
+            switch (MoveLog.type(move)) {
+                case MoveLog.ROLL -> {
+                    if (rollCount >= 3) {
+                        throw new IllegalStateException("plus de 3 lancers dans un tour");
+                    }
+                    int keep = rollCount == 0 ? 0 : MoveLog.lockMask(move);
+                    for (int i = 0; i < GameState.DICE_COUNT; i++) {
+                        if ((keep & (1 << i)) == 0) {
+                            dice = GameState.withDie(dice, i, DiceService.nextDie(rng));
+                        }
+                    }
+                    rollCount++;
+                }
+                case MoveLog.SCORE -> {
+                    Category category = MoveLog.category(move);
+                    if (rollCount == 0 || scoreService.isFilled(sheet, category)) {
+                        throw new IllegalStateException("score invalide en " + category);
+                    }
+                    extraYams.put(playerId, scoreService.applyTurnScore(sheet, category, dice, extraYams.get(playerId)));
+                }
+                case MoveLog.PENALTY -> {
+                    if (scoreService.applyPenalty(sheet, extraYams.get(playerId)) == null) {
+                        throw new IllegalStateException("pénalité sur une feuille pleine");
+                    }
+                }
+                default -> throw new IllegalStateException("coup inconnu " + move);
+            }
+            if (MoveLog.type(move) != MoveLog.ROLL) {
+                // Fin de tour : même enchaînement que GameService.switchToNextPlayer
+                current = (current + 1) % playerIds.size();
+                rollCount = 0;
+                dice = 0;
+            }
+        }
+        return sheets;
+    }
+}
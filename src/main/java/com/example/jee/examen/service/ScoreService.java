@@ -9,20 +9,123 @@ import java.util.*;
 @Service
 public class ScoreService {
 
+    public static final int DICE_COUNT = 5;
+    /** Nombre de combinaisons non ordonnées de 5 dés à 6 faces : C(10, 5) */
+    public static final int MULTISET_COUNT = 252;
+
+    private static final Category[] CATEGORIES = Category.values();
+    private static final int CATEGORY_COUNT = CATEGORIES.length;
+    public static final int ALL_FILLED_MASK = (1 << CATEGORY_COUNT) - 1;
+    /** Nombre de tirages ordonnés : 6^5 */
+    private static final int ORDERED_ROLL_COUNT = 7776;
+
+    /** Tirage ordonné (base 6) → index de la combinaison non ordonnée */
+    private static final short[] MULTISET_BY_ROLL = new short[ORDERED_ROLL_COUNT];
+    /** Score des 13 catégories pour chaque combinaison, précalculé une fois au chargement */
+    private static final byte[] SCORE_TABLE = new byte[MULTISET_COUNT * CATEGORY_COUNT];
+
+    static {
+        Map<Integer, Integer> multisetByCounts = new HashMap<>();
+        int[] dice = new int[DICE_COUNT];
+        for (int roll = 0; roll < ORDERED_ROLL_COUNT; roll++) {
+            int rest = roll;
+            for (int i = 0; i < DICE_COUNT; i++) {
+                dice[i] = rest % 6 + 1;
+                rest /= 6;
+            }
+            int[] counts = countDice(dice);
+            int countsKey = 0;
+            for (int face = 1; face <= 6; face++) {
+                countsKey = countsKey * 6 + counts[face];
+            }
+            Integer multiset = multisetByCounts.get(countsKey);
+            if (multiset == null) {
+                multiset = multisetByCounts.size();
+                multisetByCounts.put(countsKey, multiset);
+                int sum = Arrays.stream(dice).sum();
+                for (Category category : CATEGORIES) {
+                    SCORE_TABLE[multiset * CATEGORY_COUNT + category.ordinal()] = (byte) computeScore(category, counts, sum);
+                }
+            }
+            MULTISET_BY_ROLL[roll] = multiset.shortValue();
+        }
+    }
+
     public Map<Category, Integer> possibleScores(int[] dice, ColonneScore sheet) {
         Map<Category, Integer> result = new EnumMap<>(Category.class);
-        for (Category category : Category.values()) {
+        int multiset = multisetIndex(dice);
+        for (Category category : CATEGORIES) {
+            if (!isFilled(sheet, category)) {
+                result.put(category, multiset < 0 ? score(category, dice) : tableScore(multiset, category));
+            }
+        }
+        return result;
+    }
+
+    /** Variante sur les dés compactés de {@link com.example.jee.examen.runtime.GameState} */
+    public Map<Category, Integer> possibleScores(int packedDice, ColonneScore sheet) {
+        Map<Category, Integer> result = new EnumMap<>(Category.class);
+        int multiset = multisetIndex(packedDice);
+        for (Category category : CATEGORIES) {
             if (!isFilled(sheet, category)) {
-                result.put(category, score(category, dice));
+                result.put(category, multiset < 0 ? 0 : tableScore(multiset, category));
             }
         }
         return result;
     }
 
+    /** Variante sur les dés compactés ; 0 tant que les dés n'ont pas été lancés */
+    public int score(Category cat, int packedDice) {
+        int multiset = multisetIndex(packedDice);
+        return multiset < 0 ? 0 : tableScore(multiset, cat);
+    }
+
     public int score(Category cat, int[] dice) {
-        int sum = Arrays.stream(dice).sum();
-        int[] counts = counts(dice);
+        int multiset = multisetIndex(dice);
+        if (multiset < 0) {
+            // Dés pas encore lancés (0) : pas dans la table, on calcule directement
+            return computeScore(cat, countDice(dice), Arrays.stream(dice).sum());
+        }
+        return tableScore(multiset, cat);
+    }
+
+    /**
+     * Index (0..251) de la combinaison non ordonnée des dés, ou -1 si les dés ne sont pas
+     * cinq valeurs entre 1 et 6. Sans allocation.
+     */
+    public static int multisetIndex(int[] dice) {
+        if (dice.length != DICE_COUNT) {
+            return -1;
+        }
+        int roll = 0;
+        for (int i = DICE_COUNT - 1; i >= 0; i--) {
+            int die = dice[i];
+            if (die < 1 || die > 6) {
+                return -1;
+            }
+            roll = roll * 6 + (die - 1);
+        }
+        return MULTISET_BY_ROLL[roll];
+    }
+
+    /** Comme {@link #multisetIndex(int[])}, pour 5 dés compactés sur 3 bits chacun (dé i aux bits 3i..3i+2) */
+    public static int multisetIndex(int packedDice) {
+        int roll = 0;
+        for (int i = DICE_COUNT - 1; i >= 0; i--) {
+            int die = (packedDice >>> (3 * i)) & 7;
+            if (die < 1 || die > 6) {
+                return -1;
+            }
+            roll = roll * 6 + (die - 1);
+        }
+        return MULTISET_BY_ROLL[roll];
+    }
+
+    public static int tableScore(int multiset, Category category) {
+        return SCORE_TABLE[multiset * CATEGORY_COUNT + category.ordinal()];
+    }
 
+    private static int computeScore(Category cat, int[] counts, int sum) {
         return switch (cat) {
             case ONE -> counts[1] * 1;
             case TWO -> counts[2] * 2;
@@ -32,15 +135,31 @@ public class ScoreService {
             case SIX -> counts[6] * 6;
             case BRELAN -> hasAtLeastNOfAKind(counts, 3) ? sum : 0;
             case CARRE -> hasAtLeastNOfAKind(counts, 4) ? sum : 0;
-            case FULL -> isFull(counts) ? 25 : 0;
-            case PETITE_SUITE -> isSmallStraight(counts) ? 30 : 0;
-            case GRANDE_SUITE -> isLargeStraight(counts) ? 40 : 0;
+            case FULL -> checkFull(counts) ? 25 : 0;
+            case PETITE_SUITE -> checkSmallStraight(counts) ? 30 : 0;
+            case GRANDE_SUITE -> checkLargeStraight(counts) ? 40 : 0;
             case YAM -> hasAtLeastNOfAKind(counts, 5) ? 50 : 0;
             case CHANCE -> sum;
         };
     }
 
     public int[] counts(int[] dice) {
+        return countDice(dice);
+    }
+
+    public boolean isFull(int[] counts) {
+        return checkFull(counts);
+    }
+
+    public boolean isSmallStraight(int[] counts) {
+        return checkSmallStraight(counts);
+    }
+
+    public boolean isLargeStraight(int[] counts) {
+        return checkLargeStraight(counts);
+    }
+
+    private static int[] countDice(int[] dice) {
         int[] counts = new int[7];
         for (int die : dice) {
             if (die >= 1 && die <= 6) {
@@ -50,7 +169,7 @@ public class ScoreService {
         return counts;
     }
 
-    public boolean isFull(int[] counts) {
+    private static boolean checkFull(int[] counts) {
         boolean has3 = false;
         boolean has2 = false;
         for (int i = 1; i <= 6; i++) {
@@ -60,22 +179,22 @@ public class ScoreService {
         return has3 && has2;
     }
 
-    public boolean isSmallStraight(int[] counts) {
+    private static boolean checkSmallStraight(int[] counts) {
         return hasRun(counts, 1, 4) || hasRun(counts, 2, 4) || hasRun(counts, 3, 4);
     }
 
-    public boolean isLargeStraight(int[] counts) {
+    private static boolean checkLargeStraight(int[] counts) {
         return hasRun(counts, 1, 5) || hasRun(counts, 2, 5);
     }
 
-    private boolean hasAtLeastNOfAKind(int[] counts, int n) {
+    private static boolean hasAtLeastNOfAKind(int[] counts, int n) {
         for (int i = 1; i <= 6; i++) {
             if (counts[i] >= n) return true;
         }
         return false;
     }
 
-    private boolean hasRun(int[] counts, int start, int length) {
+    private static boolean hasRun(int[] counts, int start, int length) {
         for (int i = start; i < start + length; i++) {
             if (counts[i] == 0) return false;
         }
@@ -83,20 +202,25 @@ public class ScoreService {
     }
 
     public boolean isFilled(ColonneScore sheet, Category category) {
+        return (filledMask(sheet) & (1 << category.ordinal())) != 0;
+    }
+
+    /** Score inscrit dans la catégorie, null si elle est encore libre */
+    public Integer categoryScore(ColonneScore sheet, Category category) {
         return switch (category) {
-            case ONE -> sheet.getScore1() != null;
-            case TWO -> sheet.getScore2() != null;
-            case THREE -> sheet.getScore3() != null;
-            case FOUR -> sheet.getScore4() != null;
-            case FIVE -> sheet.getScore5() != null;
-            case SIX -> sheet.getScore6() != null;
-            case BRELAN -> sheet.getScoreBrelan() != null;
-            case CARRE -> sheet.getScoreCarre() != null;
-            case FULL -> sheet.getScoreFull() != null;
-            case PETITE_SUITE -> sheet.getScorePetiteSuite() != null;
-            case GRANDE_SUITE -> sheet.getScoreGrandeSuite() != null;
-            case YAM -> sheet.getScoreYam() != null;
-            case CHANCE -> sheet.getScoreChance() != null;
+            case ONE -> sheet.getScore1();
+            case TWO -> sheet.getScore2();
+            case THREE -> sheet.getScore3();
+            case FOUR -> sheet.getScore4();
+            case FIVE -> sheet.getScore5();
+            case SIX -> sheet.getScore6();
+            case BRELAN -> sheet.getScoreBrelan();
+            case CARRE -> sheet.getScoreCarre();
+            case FULL -> sheet.getScoreFull();
+            case PETITE_SUITE -> sheet.getScorePetiteSuite();
+            case GRANDE_SUITE -> sheet.getScoreGrandeSuite();
+            case YAM -> sheet.getScoreYam();
+            case CHANCE -> sheet.getScoreChance();
         };
     }
 
@@ -116,29 +240,58 @@ public class ScoreService {
             case YAM -> sheet.setScoreYam(value);
             case CHANCE -> sheet.setScoreChance(value);
         }
+        sheet.setFilledMask(filledMask(sheet) | (1 << category.ordinal()));
     }
 
-    public boolean allCategoriesFilled(ColonneScore sheet) {
-        for (Category category : Category.values()) {
-            if (!isFilled(sheet, category)) {
-                return false;
-            }
+    /**
+     * Inscrit le score d'un tour dans la catégorie choisie, prime de Yam supplémentaire comprise.
+     *
+     * @return nombre de Yams supplémentaires du joueur après ce tour
+     */
+    public int applyTurnScore(ColonneScore sheet, Category category, int packedDice, int extraYamCount) {
+        if (score(Category.YAM, packedDice) == 50 && sheet.getScoreYam() != null) {
+            extraYamCount++;
         }
-        return true;
+        setCategoryScore(sheet, category, score(category, packedDice));
+        recomputeTotals(sheet, extraYamCount);
+        return extraYamCount;
     }
 
-    public Category firstUnfilledCategory(ColonneScore sheet) {
-        List<Category> order = List.of(
-                Category.ONE, Category.TWO, Category.THREE, Category.FOUR, Category.FIVE, Category.SIX,
-                Category.BRELAN, Category.CARRE, Category.FULL, Category.PETITE_SUITE,
-                Category.GRANDE_SUITE, Category.YAM, Category.CHANCE
-        );
-        for (Category category : order) {
-            if (!isFilled(sheet, category)) {
-                return category;
-            }
+    /** Pénalité de fin de tour : 0 dans la première catégorie libre, null si la feuille est déjà pleine */
+    public Category applyPenalty(ColonneScore sheet, int extraYamCount) {
+        Category category = firstUnfilledCategory(sheet);
+        if (category != null) {
+            setCategoryScore(sheet, category, 0);
+            recomputeTotals(sheet, extraYamCount);
         }
-        return null;
+        return category;
+    }
+
+    /**
+     * Vainqueur d'une partie terminée : meilleur total, le plus petit id joueur en cas d'égalité. Partagé par
+     * la fin de partie et la vérification des rejeux pour qu'une égalité donne le même résultat quel que soit
+     * l'ordre des feuilles.
+     */
+    public Long winnerId(Collection<ColonneScore> sheets) {
+        return sheets.stream()
+                .max(Comparator.comparingInt(ColonneScore::getScoreTotal)
+                        .thenComparing(ColonneScore::getIdJoueur, Comparator.reverseOrder()))
+                .map(ColonneScore::getIdJoueur)
+                .orElse(null);
+    }
+
+    public boolean allCategoriesFilled(ColonneScore sheet) {
+        return filledMask(sheet) == ALL_FILLED_MASK;
+    }
+
+    /** Première catégorie libre dans l'ordre de la feuille (ordre de l'enum), null si la feuille est pleine */
+    public Category firstUnfilledCategory(ColonneScore sheet) {
+        int free = ~filledMask(sheet) & ALL_FILLED_MASK;
+        return free == 0 ? null : CATEGORIES[Integer.numberOfTrailingZeros(free)];
+    }
+
+    private int filledMask(ColonneScore sheet) {
+        return sheet.getFilledMask() == null ? 0 : sheet.getFilledMask();
     }
 
     public void recomputeTotals(ColonneScore sheet, int extraYamCount) {
@@ -0,0 +1,130 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.entity.ColonneScore;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Écriture différée des feuilles de score : pendant la partie la feuille de référence est celle de
+ * {@link com.example.jee.examen.runtime.GameState}, les feuilles modifiées sont marquées puis écrites
+ * en base par lots JDBC en tâche de fond. La fin de partie force une écriture synchrone.
+ * <p>
+ * Une feuille marquée est copiée aussitôt, dans le thread de la commande ({@link SheetRow}) : l'écriture en
+ * tâche de fond ne lit jamais une feuille que la partie est en train de modifier.
+ * <p>
+ * Une catégorie remplie ne change plus : les versions successives d'une feuille ont des {@code filled_mask}
+ * croissants. L'écriture n'a donc lieu que si le masque en base n'est pas plus grand, pour qu'une copie
+ * périmée (écriture différée d'un autre serveur, ou arrivée après l'écriture de fin de partie) ne remplace
+ * jamais une feuille plus avancée.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ScoreSheetWriter {
+
+    private static final String UPDATE_SQL = """
+            update colonneScore set
+                score_1 = ?, score_2 = ?, score_3 = ?, score_4 = ?, score_5 = ?, score_6 = ?,
+                total_numbers = ?, total_numbers_bonus = ?,
+                score_brelan = ?, score_carre = ?, score_full = ?, score_petite_suite = ?,
+                score_grande_suite = ?, score_yam = ?, score_chance = ?,
+                score_total = ?, filled_mask = ?
+            where id = ? and filled_mask <= ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Valeurs d'une feuille au moment où elle a été marquée, dans l'ordre des colonnes de {@link #UPDATE_SQL} */
+    record SheetRow(long id, int filledMask, Integer[] values) {
+
+        static SheetRow of(ColonneScore sheet) {
+            int filledMask = sheet.getFilledMask() == null ? 0 : sheet.getFilledMask();
+            return new SheetRow(sheet.getId(), filledMask, new Integer[]{
+                    sheet.getScore1(), sheet.getScore2(), sheet.getScore3(),
+                    sheet.getScore4(), sheet.getScore5(), sheet.getScore6(),
+                    sheet.getTotalNumbers(), sheet.getTotalNumbersBonus(),
+                    sheet.getScoreBrelan(), sheet.getScoreCarre(), sheet.getScoreFull(), sheet.getScorePetiteSuite(),
+                    sheet.getScoreGrandeSuite(), sheet.getScoreYam(), sheet.getScoreChance(),
+                    sheet.getScoreTotal(), filledMask});
+        }
+    }
+
+    /** Dernière version marquée de chaque feuille, par id */
+    private final Map<Long, SheetRow> dirtySheets = new ConcurrentHashMap<>();
+
+    public void markDirty(ColonneScore sheet) {
+        dirtySheets.put(sheet.getId(), SheetRow.of(sheet));
+    }
+
+    /** Écriture immédiate (dans la transaction courante s'il y en a une), utilisée en fin de partie */
+    public void flushNow(Collection<ColonneScore> sheets) {
+        List<SheetRow> rows = new ArrayList<>(sheets.size());
+        for (ColonneScore sheet : sheets) {
+            dirtySheets.remove(sheet.getId());
+            rows.add(SheetRow.of(sheet));
+        }
+        write(rows);
+    }
+
+    @Scheduled(fixedDelayString = "${app.scores.flush-interval-ms:500}")
+    public void flush() {
+        if (dirtySheets.isEmpty()) {
+            return;
+        }
+        // Une modification concurrente re-marque la feuille et sera écrite au prochain passage
+        List<SheetRow> batch = new ArrayList<>();
+        for (Map.Entry<Long, SheetRow> entry : dirtySheets.entrySet()) {
+            if (dirtySheets.remove(entry.getKey(), entry.getValue())) {
+                batch.add(entry.getValue());
+            }
+        }
+        try {
+            write(batch);
+        } catch (RuntimeException ex) {
+            log.warn("Échec de l'écriture différée de {} feuille(s), nouvel essai au prochain passage", batch.size(), ex);
+            batch.forEach(row -> dirtySheets.putIfAbsent(row.id(), row));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void write(List<SheetRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_SQL, rows, rows.size(), this::bind);
+    }
+
+    private void bind(PreparedStatement ps, SheetRow row) throws SQLException {
+        int i = 1;
+        for (Integer value : row.values()) {
+            setNullable(ps, i++, value);
+        }
+        ps.setLong(i++, row.id());
+        ps.setInt(i, row.filledMask());
+    }
+
+    private void setNullable(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.dto.HintResponse;
+import com.example.jee.examen.entity.ColonneScore;
+import com.example.jee.examen.enums.RuntimeGameStatus;
+import com.example.jee.examen.runtime.GameState;
+import com.example.jee.examen.runtime.StrategyTable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.springframework.http.HttpStatus.*;
+
+/**
+ * Conseils de jeu à partir de la {@link StrategyTable}. La table est calculée en tâche de fond après le
+ * démarrage (quelques secondes par cœur) ; si {@code app.strategy.table-file} est renseigné, elle est
+ * écrite une fois dans ce fichier puis projetée en mémoire (mmap) aux démarrages suivants.
+ */
+@Slf4j
+@Service
+public class StrategyService {
+
+    private static final int FILE_MAGIC = 0x59414D31;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    private final GameStateManager gameStateManager;
+    private final String tableFile;
+    private volatile StrategyTable table;
+
+    public StrategyService(GameStateManager gameStateManager,
+                           @Value("${app.strategy.table-file:}") String tableFile) {
+        this.gameStateManager = gameStateManager;
+        this.tableFile = tableFile;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        Thread loader = new Thread(this::load, "strategy-table");
+        loader.setDaemon(true);
+        loader.setPriority(Thread.MIN_PRIORITY);
+        loader.start();
+    }
+
+    public Optional<StrategyTable> table() {
+        return Optional.ofNullable(table);
+    }
+
+    public HintResponse hint(Long gameId, Long playerId) {
+        StrategyTable strategy = table().orElseThrow(() ->
+                new ResponseStatusException(SERVICE_UNAVAILABLE, "Table de stratégie en cours de calcul"));
+        GameState state = gameStateManager.get(gameId)
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Etat runtime introuvable"));
+        if (!state.hasPlayer(playerId)) {
+            throw new ResponseStatusException(FORBIDDEN, "Le joueur n'appartient pas à cette partie");
+        }
+        if (state.getStatus() == RuntimeGameStatus.FINISHED) {
+            throw new ResponseStatusException(CONFLICT, "La partie est déjà terminée");
+        }
+        if (state.getCurrentPlayerId() != playerId) {
+            throw new ResponseStatusException(FORBIDDEN, "Ce n'est pas votre tour");
+        }
+
+        ColonneScore sheet = state.getSheets().stream()
+                .filter(s -> s.getIdJoueur().equals(playerId))
+                .findFirst()
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Feuille de score introuvable"));
+        int mask = orZero(sheet.getFilledMask());
+        int upper = orZero(sheet.getTotalNumbers());
+        int total = orZero(sheet.getScoreTotal());
+
+        if (state.getRollCount() == 0) {
+            return HintResponse.builder()
+                    .expectedFinalScore(total + strategy.expectedRemaining(mask, upper))
+                    .build();
+        }
+        StrategyTable.Move move = strategy.bestMove(state.diceArray(), state.getRollCount(), mask, upper);
+        return HintResponse.builder()
+                .category(move.category())
+                .keepIndexes(move.keepIndexes() == null ? null : Arrays.stream(move.keepIndexes()).boxed().toList())
+                .expectedFinalScore(total + move.expectedRemaining())
+                .build();
+    }
+
+    private void load() {
+        try {
+            long start = System.nanoTime();
+            Path path = tableFile.isBlank() ? null : Path.of(tableFile);
+            FloatBuffer values = path != null && Files.exists(path) ? map(path) : null;
+            if (values == null) {
+                float[] computed = StrategyTable.compute();
+                if (path != null) {
+                    write(path, computed);
+                }
+                values = FloatBuffer.wrap(computed);
+            }
+            table = new StrategyTable(values);
+            log.info("Table de stratégie prête en {} ms (espérance initiale {})",
+                    (System.nanoTime() - start) / 1_000_000, table.expectedRemaining(0, 0));
+        } catch (IOException | RuntimeException ex) {
+            log.error("Impossible de préparer la table de stratégie", ex);
+        }
+    }
+
+    /** Projette la table en lecture seule, null si le fichier n'a pas le format attendu */
+    private FloatBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long expectedSize = HEADER_BYTES + (long) StrategyTable.STATE_COUNT * Float.BYTES;
+            if (channel.size() != expectedSize) {
+                log.warn("Fichier de stratégie {} ignoré : taille inattendue", path);
+                return null;
+            }
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, expectedSize);
+            if (mapped.getInt(0) != FILE_MAGIC || mapped.getInt(Integer.BYTES) != StrategyTable.STATE_COUNT) {
+                log.warn("Fichier de stratégie {} ignoré : en-tête inattendu", path);
+                return null;
+            }
+            return mapped.position(HEADER_BYTES).slice().asFloatBuffer();
+        }
+    }
+
+    private void write(Path path, float[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + values.length * Float.BYTES);
+        buffer.putInt(FILE_MAGIC).putInt(values.length);
+        buffer.asFloatBuffer().put(values);
+        buffer.rewind();
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static int orZero(Integer value) {
+        return value == null ? 0 : value;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.runtime.GameState;
+import com.example.jee.examen.runtime.TimerWheel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Déclenche la pénalité de fin de tour à l'échéance, même si aucun joueur n'envoie de requête.
+ * La roue ne fait que déposer l'échéance dans la file de commandes de la partie.
+ * Une seule échéance par partie : planifier le tour suivant annule la précédente, et l'échéance
+ * porte le numéro de tour pour qu'un déclenchement tardif reste sans effet.
+ */
+@Slf4j
+@Component
+public class TurnTimeoutScheduler {
+
+    private final ObjectProvider<GameService> gameService;
+    private final GameCommandExecutor gameCommands;
+    private final TimerWheel wheel;
+    private final Map<Long, TimerWheel.Timeout> timeoutsByGame = new ConcurrentHashMap<>();
+
+    public TurnTimeoutScheduler(ObjectProvider<GameService> gameService,
+                                GameCommandExecutor gameCommands,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.games.timeout.tick-ms:100}") long tickMs,
+                                @Value("${app.games.timeout.wheel-size:512}") int wheelSize) {
+        this.gameService = gameService;
+        this.gameCommands = gameCommands;
+        this.wheel = new TimerWheel("turn-timeout-wheel", tickMs, wheelSize, Runnable::run);
+        Gauge.builder("yam.turns.pending-deadlines", wheel, TimerWheel::pending)
+                .description("Échéances de tour en attente")
+                .register(meterRegistry);
+    }
+
+    public void schedule(GameState state) {
+        Long gameId = state.getPartieId();
+        int turn = state.getTurnNumber();
+        long delayMs = state.getTurnDeadlineAt() - System.currentTimeMillis();
+        TimerWheel.Timeout timeout = wheel.schedule(() -> fire(gameId, turn), delayMs, TimeUnit.MILLISECONDS);
+        TimerWheel.Timeout previous = timeoutsByGame.put(gameId, timeout);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    public void cancel(Long gameId) {
+        TimerWheel.Timeout timeout = timeoutsByGame.remove(gameId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wheel.close();
+    }
+
+    private void fire(Long gameId, int turn) {
+        gameCommands.submit(gameId, () -> {
+            gameService.getObject().expireTurn(gameId, turn);
+            return null;
+        }).exceptionally(ex -> {
+            log.warn("Échec de la pénalité de fin de tour pour la partie {}", gameId, ex);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.jee.examen.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedTtlCacheTest {
+
+    @Test
+    void sizeShouldStayBoundedAndDropToNinetyPercentWhenFull() {
+        BoundedTtlCache<Integer, String> cache = new BoundedTtlCache<>(1000, Duration.ofMinutes(1));
+        for (int key = 0; key < 1000; key++) {
+            cache.put(key, "v" + key);
+        }
+        assertEquals(1000, cache.size());
+
+        cache.put(-1, "recent");
+        assertEquals(900, cache.size());
+        assertEquals("recent", cache.getIfPresent(-1));
+
+        for (int key = 1001; key < 50_000; key++) {
+            cache.put(key, "v" + key);
+            assertTrue(cache.size() <= 1000, "Taille : " + cache.size());
+        }
+    }
+
+    @Test
+    void expiredEntriesShouldBeReloaded() throws InterruptedException {
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(10, Duration.ofMillis(30));
+        cache.put("a", 1);
+        assertEquals(1, cache.getIfPresent("a"));
+
+        Thread.sleep(60);
+
+        assertNull(cache.getIfPresent("a"));
+        assertEquals(2, cache.get("a", key -> 2));
+        assertEquals(2, cache.getIfPresent("a"));
+    }
+
+    @Test
+    void fullCacheShouldPurgeExpiredEntriesFirst() throws InterruptedException {
+        BoundedTtlCache<Integer, Integer> cache = new BoundedTtlCache<>(10, Duration.ofMillis(30));
+        for (int key = 0; key < 10; key++) {
+            cache.put(key, key);
+        }
+        Thread.sleep(60);
+
+        cache.put(10, 10);
+
+        assertEquals(1, cache.size());
+        assertEquals(10, cache.getIfPresent(10));
+    }
+
+    @Test
+    void nullValuesShouldNotBeCached() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+        assertNull(cache.get("absent", key -> null));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.jee.examen.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashRingTest {
+
+    private static final int KEYS = 100_000;
+
+    @Test
+    void shouldSpreadConsecutiveIdsEvenly() {
+        HashRing ring = new HashRing(List.of("http://node1:8080", "http://node2:8080", "http://node3:8080"), 128);
+        Map<String, Integer> counts = new HashMap<>();
+        for (long key = 1; key <= KEYS; key++) {
+            counts.merge(ring.ownerOf(key), 1, Integer::sum);
+        }
+
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(Math.abs(count - KEYS / 3) < KEYS / 3 / 5,
+                "Répartition déséquilibrée : " + counts));
+    }
+
+    @Test
+    void keysSharingTheirLowBitsShouldBeOwnedEvenly() {
+        List<String> nodes = List.of("http://node1:8080", "http://node2:8080", "http://node3:8080",
+                "http://node4:8080", "http://node5:8080");
+        HashRing ring = new HashRing(nodes, 128);
+        Map<String, Integer> counts = new HashMap<>();
+        for (long i = 1; i <= KEYS; i++) {
+            counts.merge(ring.ownerOf(i << 10), 1, Integer::sum);
+        }
+
+        assertEquals(nodes.size(), counts.size());
+        int expected = KEYS / nodes.size();
+        counts.values().forEach(count -> assertTrue(Math.abs(count - expected) < expected / 5,
+                "Répartition déséquilibrée : " + counts));
+    }
+
+    @Test
+    void addingANodeShouldOnlyMoveKeysToIt() {
+        HashRing before = new HashRing(List.of("a", "b", "c"), 128);
+        HashRing after = new HashRing(List.of("a", "b", "c", "d"), 128);
+        int moved = 0;
+        for (long key = 1; key <= KEYS; key++) {
+            String owner = after.ownerOf(key);
+            if (!owner.equals(before.ownerOf(key))) {
+                assertEquals("d", owner);
+                moved++;
+            }
+        }
+
+        assertTrue(moved > KEYS / 4 * 0.8 && moved < KEYS / 4 * 1.2, "Clés déplacées : " + moved);
+    }
+
+    @Test
+    void ownerShouldNotDependOnNodeOrder() {
+        HashRing ring = new HashRing(List.of("a", "b", "c"), 64);
+        HashRing shuffled = new HashRing(List.of("c", "a", "b"), 64);
+        for (long key = 1; key <= 10_000; key++) {
+            assertEquals(ring.ownerOf(key), shuffled.ownerOf(key));
+        }
+    }
+}
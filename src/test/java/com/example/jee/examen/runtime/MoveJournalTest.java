@@ -0,0 +1,104 @@
+package com.example.jee.examen.runtime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReplayRecordsInOrder() throws IOException {
+        try (MoveJournal journal = new MoveJournal(directory, 0, true)) {
+            for (int i = 0; i < 1_000; i++) {
+                journal.append(record(i));
+            }
+        }
+
+        List<Integer> replayed = new ArrayList<>();
+        long last = MoveJournal.replay(directory, 0, data -> replayed.add(data.getInt()));
+
+        assertEquals(0, last);
+        assertEquals(1_000, replayed.size());
+        for (int i = 0; i < replayed.size(); i++) {
+            assertEquals(i, replayed.get(i));
+        }
+    }
+
+    @Test
+    void shouldStopAtTornTailAndTruncateIt() throws IOException {
+        try (MoveJournal journal = new MoveJournal(directory, 0, false)) {
+            for (int i = 0; i < 10; i++) {
+                journal.append(record(i));
+            }
+        }
+        Path segment = MoveJournal.segments(directory).firstEntry().getValue();
+        long fullSize = Files.size(segment);
+        // Dernier enregistrement à moitié écrit
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(fullSize - 3);
+        }
+
+        List<Integer> replayed = new ArrayList<>();
+        MoveJournal.replay(directory, 0, data -> replayed.add(data.getInt()));
+
+        assertEquals(9, replayed.size());
+        assertTrue(Files.size(segment) < fullSize - 3);
+    }
+
+    @Test
+    void shouldStopWhenChainIsBroken() throws IOException {
+        try (MoveJournal journal = new MoveJournal(directory, 0, false)) {
+            for (int i = 0; i < 10; i++) {
+                journal.append(record(i));
+            }
+        }
+        Path segment = MoveJournal.segments(directory).firstEntry().getValue();
+        byte[] bytes = Files.readAllBytes(segment);
+        int recordBytes = bytes.length / 10;
+        // Contenu du 5e enregistrement altéré
+        bytes[4 * recordBytes + 8] ^= 0x7F;
+        Files.write(segment, bytes);
+
+        List<Integer> replayed = new ArrayList<>();
+        MoveJournal.replay(directory, 0, data -> replayed.add(data.getInt()));
+
+        assertEquals(List.of(0, 1, 2, 3), replayed);
+    }
+
+    @Test
+    void snapshotShouldReplaceEarlierSegments() throws Exception {
+        try (MoveJournal journal = new MoveJournal(directory, 0, false)) {
+            journal.append(record(1));
+            long base = journal.rotate().get();
+            journal.append(record(2));
+
+            assertEquals(1, base);
+            MoveJournal.writeSnapshot(directory, base, List.of(record(100)));
+            MoveJournal.deleteSegmentsBefore(directory, base);
+        }
+
+        List<Integer> replayed = new ArrayList<>();
+        long base = MoveJournal.readSnapshot(directory, data -> replayed.add(data.getInt()));
+        MoveJournal.replay(directory, base, data -> replayed.add(data.getInt()));
+
+        assertEquals(List.of(100, 2), replayed);
+        assertEquals(1, MoveJournal.segments(directory).size());
+    }
+
+    private static byte[] record(int value) {
+        return ByteBuffer.allocate(32).putInt(value).array();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.jee.examen.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapSlabTest {
+
+    @Test
+    void shouldStoreRecordsAcrossChunksAndIndexGrowth() {
+        OffHeapSlab slab = new OffHeapSlab(16, 100);
+        for (long key = 1; key <= 10_000; key++) {
+            long value = key * 7;
+            slab.put(key, data -> data.putLong(value).putLong(-value));
+        }
+
+        assertEquals(10_000, slab.size());
+        for (long key = 1; key <= 10_000; key++) {
+            assertEquals(key * 7, valueOf(slab, key));
+        }
+        assertNull(valueOf(slab, 10_001));
+    }
+
+    @Test
+    void removedKeysShouldDisappearAndFreeTheirSlot() {
+        OffHeapSlab slab = new OffHeapSlab(8, 64);
+        for (long key = 1; key <= 64; key++) {
+            long value = key;
+            slab.put(key, data -> data.putLong(value));
+        }
+        long reserved = slab.offHeapBytes();
+
+        for (long key = 1; key <= 64; key += 2) {
+            assertTrue(slab.remove(key));
+        }
+        assertFalse(slab.remove(1));
+        for (long key = 101; key <= 132; key++) {
+            long value = key;
+            slab.put(key, data -> data.putLong(value));
+        }
+
+        assertEquals(reserved, slab.offHeapBytes());
+        assertEquals(64, slab.size());
+        assertNull(valueOf(slab, 1));
+        assertEquals(2L, valueOf(slab, 2));
+        assertEquals(132L, valueOf(slab, 132));
+        assertFalse(slab.write(3, data -> data.putLong(0)));
+    }
+
+    @Test
+    void readersShouldNeverSeeHalfWrittenRecords() throws InterruptedException {
+        OffHeapSlab slab = new OffHeapSlab(64, 16);
+        slab.put(1, data -> fill(data, 0));
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger torn = new AtomicInteger();
+
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                Boolean consistent = slab.read(1, data -> {
+                    long first = data.getLong();
+                    while (data.hasRemaining()) {
+                        if (data.getLong() != first) {
+                            return false;
+                        }
+                    }
+                    return true;
+                });
+                if (!consistent) {
+                    torn.incrementAndGet();
+                }
+            }
+        });
+        reader.start();
+        for (int i = 1; i <= 200_000; i++) {
+            long value = i;
+            slab.write(1, data -> fill(data, value));
+        }
+        running.set(false);
+        reader.join();
+
+        assertEquals(0, torn.get());
+    }
+
+    private static Long valueOf(OffHeapSlab slab, long key) {
+        return slab.read(key, ByteBuffer::getLong);
+    }
+
+    private static void fill(ByteBuffer data, long value) {
+        while (data.hasRemaining()) {
+            data.putLong(value);
+        }
+    }
+}
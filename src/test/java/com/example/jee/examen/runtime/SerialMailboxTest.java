@@ -0,0 +1,154 @@
+package com.example.jee.examen.runtime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerialMailboxTest {
+
+    private static final int MAILBOXES = 4;
+    private static final int PRODUCERS_PER_MAILBOX = 3;
+    private static final int COMMANDS_PER_PRODUCER = 5_000;
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void commandsOfOneProducerShouldRunInSubmissionOrder() throws InterruptedException {
+        List<SerialMailbox> mailboxes = new ArrayList<>();
+        // Listes non synchronisées : une file n'est jamais traitée par deux threads à la fois
+        List<List<int[]>> executed = new ArrayList<>();
+        for (int i = 0; i < MAILBOXES; i++) {
+            mailboxes.add(new SerialMailbox(pool));
+            executed.add(new ArrayList<>());
+        }
+        CountDownLatch done = new CountDownLatch(MAILBOXES * PRODUCERS_PER_MAILBOX * COMMANDS_PER_PRODUCER);
+
+        runProducers((mailbox, producer, seq) -> mailboxes.get(mailbox).execute(() -> {
+            executed.get(mailbox).add(new int[]{producer, seq});
+            done.countDown();
+        }));
+
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        for (List<int[]> commands : executed) {
+            assertEquals(PRODUCERS_PER_MAILBOX * COMMANDS_PER_PRODUCER, commands.size());
+            int[] lastSeq = new int[PRODUCERS_PER_MAILBOX];
+            Arrays.fill(lastSeq, -1);
+            for (int[] command : commands) {
+                assertEquals(lastSeq[command[0]] + 1, command[1]);
+                lastSeq[command[0]] = command[1];
+            }
+        }
+    }
+
+    @Test
+    void mailboxShouldNeverRunTwoCommandsAtOnce() throws InterruptedException {
+        List<SerialMailbox> mailboxes = new ArrayList<>();
+        List<AtomicInteger> running = new ArrayList<>();
+        for (int i = 0; i < MAILBOXES; i++) {
+            mailboxes.add(new SerialMailbox(pool));
+            running.add(new AtomicInteger());
+        }
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(MAILBOXES * PRODUCERS_PER_MAILBOX * COMMANDS_PER_PRODUCER);
+
+        runProducers((mailbox, producer, seq) -> mailboxes.get(mailbox).execute(() -> {
+            if (running.get(mailbox).incrementAndGet() != 1) {
+                overlaps.incrementAndGet();
+            }
+            Thread.onSpinWait();
+            running.get(mailbox).decrementAndGet();
+            done.countDown();
+        }));
+
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertEquals(0, overlaps.get());
+    }
+
+    @Test
+    void failingCommandShouldNotStopTheMailbox() {
+        SerialMailbox mailbox = new SerialMailbox(Runnable::run);
+        List<Integer> executed = new ArrayList<>();
+
+        mailbox.execute(() -> executed.add(1));
+        mailbox.execute(() -> {
+            throw new IllegalStateException("échec");
+        });
+        mailbox.execute(() -> executed.add(3));
+
+        assertEquals(List.of(1, 3), executed);
+    }
+
+    @Test
+    void longQueueShouldGiveTheThreadBackBetweenBatches() {
+        Queue<Runnable> submitted = new ArrayDeque<>();
+        SerialMailbox mailbox = new SerialMailbox(submitted::add);
+        List<Integer> executed = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int value = i;
+            mailbox.execute(() -> executed.add(value));
+        }
+        assertEquals(1, submitted.size());
+
+        submitted.poll().run();
+
+        assertEquals(32, executed.size());
+        assertEquals(1, submitted.size());
+        while (!submitted.isEmpty()) {
+            submitted.poll().run();
+        }
+        assertEquals(100, executed.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, executed.get(i));
+        }
+    }
+
+    private interface Producer {
+        void submit(int mailbox, int producer, int seq);
+    }
+
+    /** Plusieurs threads par file, chacun soumettant ses commandes numérotées */
+    private static void runProducers(Producer producer) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        for (int mailbox = 0; mailbox < MAILBOXES; mailbox++) {
+            for (int p = 0; p < PRODUCERS_PER_MAILBOX; p++) {
+                int m = mailbox;
+                int id = p;
+                Thread thread = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int seq = 0; seq < COMMANDS_PER_PRODUCER; seq++) {
+                        producer.submit(m, id, seq);
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
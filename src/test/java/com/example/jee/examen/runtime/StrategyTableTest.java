@@ -0,0 +1,37 @@
+package com.example.jee.examen.runtime;
+
+import com.example.jee.examen.enums.Category;
+import com.example.jee.examen.service.ScoreService;
+import org.junit.jupiter.api.Test;
+
+import java.nio.FloatBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StrategyTableTest {
+
+    /** Seule la case YAM reste libre : les états suivants valent 0, la table vide suffit */
+    private static final int ONLY_YAM_OPEN = ScoreService.ALL_FILLED_MASK & ~(1 << Category.YAM.ordinal());
+
+    private final StrategyTable table = new StrategyTable(FloatBuffer.allocate(StrategyTable.STATE_COUNT));
+
+    @Test
+    void shouldExpectYamProbabilityTimesFiftyOnLastTurn() {
+        // P(Yam en 3 lancers avec la stratégie optimale) ≈ 4,60 %
+        assertEquals(2.3014, table.evaluateState(ONLY_YAM_OPEN, 0), 1e-3);
+    }
+
+    @Test
+    void shouldKeepTheMostFrequentFaceForYam() {
+        StrategyTable.Move move = table.bestMove(new int[]{6, 2, 6, 3, 6}, 1, ONLY_YAM_OPEN, 0);
+        assertNull(move.category());
+        assertArrayEquals(new int[]{0, 2, 4}, move.keepIndexes());
+    }
+
+    @Test
+    void shouldScoreAfterLastRoll() {
+        StrategyTable.Move move = table.bestMove(new int[]{4, 4, 4, 4, 4}, 3, ONLY_YAM_OPEN, 0);
+        assertEquals(Category.YAM, move.category());
+        assertEquals(50, move.expectedRemaining(), 1e-9);
+    }
+}
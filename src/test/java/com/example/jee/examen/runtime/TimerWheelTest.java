@@ -0,0 +1,56 @@
+package com.example.jee.examen.runtime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+
+    private TimerWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        // Roue volontairement petite pour que les échéances fassent plusieurs tours
+        wheel = new TimerWheel("test-wheel", 5, 8, Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wheel.close();
+    }
+
+    @Test
+    void shouldFireOnceAfterDeadline() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        AtomicInteger count = new AtomicInteger();
+        long start = System.nanoTime();
+        wheel.schedule(() -> {
+            count.incrementAndGet();
+            fired.countDown();
+        }, 100, TimeUnit.MILLISECONDS);
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+        Thread.sleep(100);
+        assertEquals(1, count.get());
+        assertEquals(0, wheel.pending());
+    }
+
+    @Test
+    void shouldNotFireCancelledTimeout() throws InterruptedException {
+        AtomicInteger count = new AtomicInteger();
+        CountDownLatch other = new CountDownLatch(1);
+        TimerWheel.Timeout timeout = wheel.schedule(count::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+        wheel.schedule(other::countDown, 80, TimeUnit.MILLISECONDS);
+        timeout.cancel();
+
+        assertTrue(other.await(2, TimeUnit.SECONDS));
+        assertEquals(0, count.get());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.runtime.GameState;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiceServiceTest {
+
+    private static final long SEED = 0x5EED_1234_ABCDL;
+
+    private final DiceService diceService = new DiceService();
+
+    @Test
+    void rollsShouldBeReproducibleFromTheSeed() {
+        GameState first = seeded(SEED);
+        GameState second = seeded(SEED);
+
+        assertEquals(rolls(first), rolls(second));
+        assertNotEquals(rolls(seeded(SEED)), rolls(seeded(SEED + 1)));
+        assertTrue(diceService.isReproducible());
+    }
+
+    @Test
+    void dieShouldFollowSplittableRandomWithRejection() {
+        GameState state = seeded(SEED);
+        SplittableRandom reference = new SplittableRandom(SEED);
+        int limit = Integer.MAX_VALUE - (Integer.MAX_VALUE % 6);
+
+        for (int i = 0; i < 10_000; i++) {
+            int bits;
+            do {
+                bits = (int) (reference.nextLong() >>> 33);
+            } while (bits >= limit);
+            assertEquals(bits % 6 + 1, DiceService.nextDie(state));
+        }
+    }
+
+    @Test
+    void facesShouldBeUniformlyDistributed() {
+        GameState state = seeded(SEED);
+        int draws = 600_000;
+        long[] counts = new long[7];
+        for (int i = 0; i < draws; i++) {
+            counts[DiceService.nextDie(state)]++;
+        }
+
+        assertEquals(0, counts[0]);
+        double expected = draws / 6.0;
+        double chiSquare = 0;
+        for (int face = 1; face <= 6; face++) {
+            chiSquare += Math.pow(counts[face] - expected, 2) / expected;
+        }
+        // 5 degrés de liberté, seuil à p = 0.001
+        assertTrue(chiSquare < 20.52, "chi2 = " + chiSquare);
+    }
+
+    @Test
+    void rerollShouldKeepLockedDice() {
+        GameState state = seeded(SEED);
+        diceService.rollAll(state);
+        int before = state.getDice();
+        state.setLockMask(0b10101);
+
+        for (int i = 0; i < 20; i++) {
+            diceService.rerollUnlocked(state);
+            assertEquals(GameState.die(before, 0), GameState.die(state.getDice(), 0));
+            assertEquals(GameState.die(before, 2), GameState.die(state.getDice(), 2));
+            assertEquals(GameState.die(before, 4), GameState.die(state.getDice(), 4));
+        }
+    }
+
+    private List<Integer> rolls(GameState state) {
+        List<Integer> dice = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            diceService.rollAll(state);
+            dice.add(state.getDice());
+            state.setLockMask(i % 32);
+            diceService.rerollUnlocked(state);
+            dice.add(state.getDice());
+        }
+        return dice;
+    }
+
+    private static GameState seeded(long seed) {
+        return GameState.builder().rngSeed(seed).rngState(seed).build();
+    }
+}
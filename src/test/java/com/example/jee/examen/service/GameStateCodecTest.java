@@ -0,0 +1,182 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.entity.ColonneScore;
+import com.example.jee.examen.enums.Category;
+import com.example.jee.examen.enums.RuntimeGameStatus;
+import com.example.jee.examen.runtime.GameState;
+import com.example.jee.examen.runtime.MoveLog;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameStateCodecTest {
+
+    private final ScoreService scoreService = new ScoreService();
+    private final GameStateCodec codec = new GameStateCodec(scoreService);
+
+    @Test
+    void gameInProgressShouldSurviveARoundTrip() {
+        GameState state = game();
+        state.setCurrentPlayerIndex(1);
+        state.setDice(GameState.withDie(GameState.withDie(0, 0, 6), 4, 3));
+        state.setLockMask(0b10010);
+        state.setRollCount(2);
+        state.setTurnNumber(9);
+        state.setTurnStartedAt(1_700_000_000_000L);
+        state.setTurnDeadlineAt(1_700_000_030_000L);
+        state.setLastActionAt(1_700_000_005_000L);
+        state.setFirstExtraYams(1);
+        state.setVersion(41);
+        state.setSheetsVersion(17);
+        state.setRngSeed(-123_456_789_012L);
+        state.setRngState(987_654_321L);
+        fill(state, 0, Category.YAM, 50);
+        fill(state, 0, Category.SIX, 24);
+        fill(state, 1, Category.ONE, 0);
+        fill(state, 1, Category.CHANCE, 27);
+        state.getMoveLog().roll(0);
+        state.getMoveLog().roll(0b00101);
+        state.getMoveLog().score(Category.YAM);
+        state.getMoveLog().penalty();
+
+        GameState decoded = roundTrip(state);
+
+        assertSameState(state, decoded);
+        assertEquals(174, decoded.getSheets().get(0).getScoreTotal());
+    }
+
+    @Test
+    void finishedGameWithTheLongestMoveLogShouldFitInMaxBytes() {
+        GameState state = game();
+        state.setStatus(RuntimeGameStatus.FINISHED);
+        state.setFinishedAt(1_700_000_900_000L);
+        state.setSecondExtraYams(2);
+        for (int sheet = 0; sheet < 2; sheet++) {
+            for (Category category : Category.values()) {
+                fill(state, sheet, category, category.ordinal() * 3);
+            }
+        }
+        for (int i = 0; i < GameStateCodec.MAX_MOVES; i++) {
+            if (i % 4 == 3) {
+                state.getMoveLog().score(Category.values()[i % Category.values().length]);
+            } else {
+                state.getMoveLog().roll(i & 0x1F);
+            }
+        }
+        assertEquals(GameStateCodec.MAX_BYTES, codec.encodedSize(state));
+
+        GameState decoded = roundTrip(state);
+
+        assertSameState(state, decoded);
+        assertTrue(decoded.getSheets().stream().allMatch(scoreService::allCategoriesFilled));
+    }
+
+    @Test
+    void gameWithoutStatusShouldSurviveARoundTrip() {
+        GameState state = game();
+        state.setStatus(null);
+
+        assertNull(roundTrip(state).getStatus());
+    }
+
+    @Test
+    void tooManyMovesShouldBeRejected() {
+        GameState state = game();
+        for (int i = 0; i <= GameStateCodec.MAX_MOVES; i++) {
+            state.getMoveLog().roll(0);
+        }
+
+        assertThrows(IllegalStateException.class,
+                () -> codec.encode(state, ByteBuffer.allocate(GameStateCodec.MAX_BYTES + 16)));
+    }
+
+    @Test
+    void summaryShouldReadTheLifecycleFieldsWithoutMovingTheBuffer() {
+        GameState state = game();
+        state.setStatus(RuntimeGameStatus.FINISHED);
+        state.setLastActionAt(1_700_000_000_123L);
+        state.setFinishedAt(1_700_000_000_456L);
+        ByteBuffer data = ByteBuffer.allocate(GameStateCodec.MAX_BYTES + 8);
+        data.position(8);
+        codec.encode(state, data);
+        data.position(8);
+
+        GameStateManager.Summary summary = codec.decodeSummary(data);
+
+        assertEquals(new GameStateManager.Summary(7L, RuntimeGameStatus.FINISHED,
+                1_700_000_000_123L, 1_700_000_000_456L), summary);
+        assertEquals(8, data.position());
+    }
+
+    /** Encode dans un tampon exactement à la taille annoncée, puis décode */
+    private GameState roundTrip(GameState state) {
+        ByteBuffer data = ByteBuffer.allocate(codec.encodedSize(state));
+        codec.encode(state, data);
+        assertFalse(data.hasRemaining());
+        data.flip();
+        GameState decoded = codec.decode(data);
+        assertFalse(data.hasRemaining());
+        return decoded;
+    }
+
+    private void fill(GameState state, int sheetIndex, Category category, int value) {
+        ColonneScore sheet = state.getSheets().get(sheetIndex);
+        scoreService.setCategoryScore(sheet, category, value);
+        scoreService.recomputeTotals(sheet, state.extraYams(sheet.getIdJoueur()));
+    }
+
+    private void assertSameState(GameState expected, GameState actual) {
+        assertEquals(expected.getPartieId(), actual.getPartieId());
+        assertEquals(expected.getFirstPlayerId(), actual.getFirstPlayerId());
+        assertEquals(expected.getSecondPlayerId(), actual.getSecondPlayerId());
+        assertEquals(expected.getFirstExtraYams(), actual.getFirstExtraYams());
+        assertEquals(expected.getSecondExtraYams(), actual.getSecondExtraYams());
+        assertEquals(expected.getCurrentPlayerIndex(), actual.getCurrentPlayerIndex());
+        assertEquals(expected.getDice(), actual.getDice());
+        assertEquals(expected.getLockMask(), actual.getLockMask());
+        assertEquals(expected.getRollCount(), actual.getRollCount());
+        assertEquals(expected.getTurnNumber(), actual.getTurnNumber());
+        assertEquals(expected.getTurnStartedAt(), actual.getTurnStartedAt());
+        assertEquals(expected.getTurnDeadlineAt(), actual.getTurnDeadlineAt());
+        assertEquals(expected.getLastActionAt(), actual.getLastActionAt());
+        assertEquals(expected.getFinishedAt(), actual.getFinishedAt());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getVersion(), actual.getVersion());
+        assertEquals(expected.getSheetsVersion(), actual.getSheetsVersion());
+        assertEquals(expected.getRngSeed(), actual.getRngSeed());
+        assertEquals(expected.getRngState(), actual.getRngState());
+        assertArrayEquals(expected.getMoveLog().toByteArray(), actual.getMoveLog().toByteArray());
+        assertEquals(expected.getSheets().size(), actual.getSheets().size());
+        for (int i = 0; i < expected.getSheets().size(); i++) {
+            ColonneScore expectedSheet = expected.getSheets().get(i);
+            ColonneScore actualSheet = actual.getSheets().get(i);
+            assertEquals(expectedSheet.getId(), actualSheet.getId());
+            assertEquals(expectedSheet.getIdPartie(), actualSheet.getIdPartie());
+            assertEquals(expectedSheet.getIdJoueur(), actualSheet.getIdJoueur());
+            for (Category category : Category.values()) {
+                assertEquals(scoreService.categoryScore(expectedSheet, category),
+                        scoreService.categoryScore(actualSheet, category), category.name());
+            }
+            assertEquals(expectedSheet.getFilledMask(), actualSheet.getFilledMask());
+            assertEquals(expectedSheet.getTotalNumbers(), actualSheet.getTotalNumbers());
+            assertEquals(expectedSheet.getTotalNumbersBonus(), actualSheet.getTotalNumbersBonus());
+            assertEquals(expectedSheet.getScoreTotal(), actualSheet.getScoreTotal());
+        }
+    }
+
+    private static GameState game() {
+        return GameState.builder()
+                .partieId(7L)
+                .firstPlayerId(10L)
+                .secondPlayerId(20L)
+                .status(RuntimeGameStatus.IN_PROGRESS)
+                .sheets(List.of(
+                        ColonneScore.builder().id(100L).idPartie(7L).idJoueur(10L).build(),
+                        ColonneScore.builder().id(101L).idPartie(7L).idJoueur(20L).build()))
+                .moveLog(new MoveLog())
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.enums.RuntimeGameStatus;
+import com.example.jee.examen.runtime.GameState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class GameStateSweeperTest {
+
+    private final HeapGameStateManager gameStateManager = new HeapGameStateManager();
+    private final GameCommandExecutor gameCommands = new GameCommandExecutor(gameStateManager,
+            new StandardEnvironment(), 2);
+    private final GameService gameService = mock(GameService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GameStateSweeper sweeper = new GameStateSweeper(gameStateManager, gameService, gameCommands,
+            meterRegistry, 60_000L, 4);
+
+    @AfterEach
+    void tearDown() {
+        gameCommands.shutdown();
+    }
+
+    @Test
+    void onlyGamesActuallyAbandonedShouldBeCounted() {
+        long now = System.currentTimeMillis();
+        put(1L, now - 10 * GameService.TURN_DURATION_MS);
+        put(2L, now - 10 * GameService.TURN_DURATION_MS);
+        put(3L, now);
+        // La partie 1 a repris avant que sa commande ne passe, la 2 est bien abandonnée
+        when(gameService.abandonGame(eq(1L), anyLong())).thenReturn(false);
+        when(gameService.abandonGame(eq(2L), anyLong())).thenReturn(true);
+
+        sweeper.sweep();
+        gameCommands.call(1L, () -> null);
+        gameCommands.call(2L, () -> null);
+
+        verify(gameService, never()).abandonGame(eq(3L), anyLong());
+        assertEquals(1.0, meterRegistry.get("yam.games.abandoned").counter().count());
+    }
+
+    @Test
+    void abandonShouldBeCheckedAgainstTheInactivityCutoff() {
+        long now = System.currentTimeMillis();
+        put(1L, now - 10 * GameService.TURN_DURATION_MS);
+
+        sweeper.sweep();
+        gameCommands.call(1L, () -> null);
+
+        verify(gameService).abandonGame(eq(1L),
+                longThat(cutoff -> cutoff >= now - 4 * GameService.TURN_DURATION_MS && cutoff <= now));
+    }
+
+    private void put(long gameId, long lastActionAt) {
+        gameStateManager.put(gameId, GameState.builder()
+                .partieId(gameId)
+                .status(RuntimeGameStatus.IN_PROGRESS)
+                .lastActionAt(lastActionAt)
+                .build());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.dto.HallOfFameResponse;
+import com.example.jee.examen.dto.ScoreSheetDto;
+import com.example.jee.examen.enums.PartieStatus;
+import com.example.jee.examen.repository.ColonneScoreRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class HallOfFameServiceTest {
+
+    private final ColonneScoreRepository repository = mock(ColonneScoreRepository.class);
+
+    @Test
+    void gameFinishedDuringRebuildShouldBeKept() {
+        HallOfFameService service = new HallOfFameService(repository, List.of(), "jdbc", "memory");
+        when(repository.findTopByPartieStatus(eq(PartieStatus.TERMINE), any())).thenAnswer(invocation -> {
+            // Partie terminée sur ce serveur pendant la requête, absente du résultat
+            service.recordFinishedGame(2L, List.of(sheet("bob", 250)));
+            return List.of(new HallOfFameRow(1L, "alice", 200));
+        });
+
+        service.rebuild();
+
+        assertEquals(List.of(new HallOfFameResponse.Entry(2L, "bob", 250),
+                        new HallOfFameResponse.Entry(1L, "alice", 200)),
+                service.top(10).getEntries());
+    }
+
+    @Test
+    void singleServerShouldNotReloadPeriodically() {
+        HallOfFameService service = new HallOfFameService(repository, List.of(), "heap", "memory");
+        service.load();
+
+        service.refresh();
+
+        verify(repository, times(1)).findTopByPartieStatus(any(), any());
+    }
+
+    @Test
+    void sharedStoreShouldReloadPeriodically() {
+        HallOfFameService service = new HallOfFameService(repository, List.of(), "heap", "jdbc");
+        service.load();
+
+        service.refresh();
+
+        verify(repository, times(2)).findTopByPartieStatus(any(), any());
+    }
+
+    private static ScoreSheetDto sheet(String pseudo, int total) {
+        return ScoreSheetDto.builder().pseudo(pseudo).scoreTotal(total).build();
+    }
+}
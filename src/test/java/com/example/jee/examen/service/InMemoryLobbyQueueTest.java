@@ -0,0 +1,101 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.runtime.LobbyEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryLobbyQueueTest {
+
+    private static final long NOW = 1_000_000L;
+    private static final long EXPIRES = NOW + 60_000L;
+
+    private final InMemoryLobbyQueue queue = new InMemoryLobbyQueue();
+
+    @Test
+    void claimNearShouldReturnTheClosestFreeEntryWithinTheWindow() {
+        LobbyEntry entry = queue.join(1L, 1200, NOW, EXPIRES);
+        queue.join(2L, 1290, NOW, EXPIRES);
+        queue.join(3L, 1170, NOW, EXPIRES);
+        queue.join(4L, 1500, NOW, EXPIRES);
+
+        assertEquals(3L, queue.claimNear(entry, 100, NOW).getPlayerId());
+        assertEquals(2L, queue.claimNear(entry, 100, NOW).getPlayerId());
+        assertNull(queue.claimNear(entry, 100, NOW));
+        assertEquals(4L, queue.claimNear(entry, 300, NOW).getPlayerId());
+    }
+
+    @Test
+    void claimedEntryShouldBeReservedUntilReleased() {
+        LobbyEntry entry = queue.join(1L, 1200, NOW, EXPIRES);
+        LobbyEntry other = queue.join(2L, 1210, NOW, EXPIRES);
+
+        assertTrue(queue.claim(other));
+        assertFalse(queue.claim(other));
+        assertNull(queue.claimNear(entry, 100, NOW));
+
+        queue.release(other);
+        assertSame(other, queue.claimNear(entry, 100, NOW));
+    }
+
+    @Test
+    void expiredEntryShouldNotBeClaimed() {
+        LobbyEntry entry = queue.join(1L, 1200, NOW, EXPIRES);
+        queue.join(2L, 1200, NOW - 70_000L, NOW - 10_000L);
+
+        assertNull(queue.claimNear(entry, 100, NOW));
+        assertNull(queue.find(2L));
+    }
+
+    @Test
+    void discardedEntryShouldLeaveTheQueueForGood() {
+        LobbyEntry entry = queue.join(1L, 1200, NOW, EXPIRES);
+        LobbyEntry other = queue.join(2L, 1200, NOW, EXPIRES);
+
+        queue.discard(other);
+        queue.release(other);
+
+        assertNull(queue.find(2L));
+        assertFalse(queue.claim(other));
+        assertNull(queue.claimNear(entry, 100, NOW));
+    }
+
+    @Test
+    void matchedEntryShouldHandItsGameOnce() {
+        LobbyEntry entry = queue.join(1L, 1200, NOW, EXPIRES);
+        assertTrue(queue.claim(entry));
+
+        queue.matched(entry, 42L);
+
+        assertNull(queue.find(1L));
+        assertEquals(42L, queue.matchOf(entry).join());
+        assertEquals(42L, queue.takeMatch(1L));
+        assertNull(queue.takeMatch(1L));
+    }
+
+    @Test
+    void joiningTwiceShouldKeepTheFirstEntry() {
+        LobbyEntry entry = queue.join(1L, 1200, NOW, EXPIRES);
+
+        assertSame(entry, queue.join(1L, 1300, NOW + 1_000L, EXPIRES));
+    }
+
+    @Test
+    void waitingEntriesShouldBeVisitedOldestFirst() {
+        long now = System.currentTimeMillis();
+        queue.join(1L, 1500, now - 3_000L, now + 60_000L);
+        queue.join(2L, 1200, now - 2_000L, now + 60_000L);
+        LobbyEntry claimed = queue.join(3L, 1300, now - 1_500L, now + 60_000L);
+        queue.join(4L, 1400, now - 1_000L, now + 60_000L);
+        queue.join(5L, 1100, now, now + 60_000L);
+        queue.claim(claimed);
+
+        List<Long> visited = new ArrayList<>();
+        queue.forEachWaitingSince(now - 1_000L, entry -> visited.add(entry.getPlayerId()));
+
+        assertEquals(List.of(1L, 2L, 4L), visited);
+    }
+}
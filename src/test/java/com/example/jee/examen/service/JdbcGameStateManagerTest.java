@@ -0,0 +1,99 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.entity.ColonneScore;
+import com.example.jee.examen.enums.RuntimeGameStatus;
+import com.example.jee.examen.repository.JoueurRepository;
+import com.example.jee.examen.runtime.GameState;
+import com.example.jee.examen.runtime.MoveLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class JdbcGameStateManagerTest {
+
+    private static final long GAME_ID = 1L;
+
+    private JdbcTemplate jdbcTemplate;
+    private JdbcGameStateManager manager;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table etatPartie (id_partie bigint primary key, revision bigint not null, "
+                + "data varbinary(512) not null)");
+        manager = new JdbcGameStateManager(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                new GameStateCodec(new ScoreService()),
+                new PseudoDirectory(mock(JoueurRepository.class), 10, Duration.ofMinutes(1)));
+        manager.put(GAME_ID, newGame());
+    }
+
+    @Test
+    void concurrentReadCommandsShouldBothSucceedWithoutChangingTheRevision() throws Exception {
+        CyclicBarrier bothLoaded = new CyclicBarrier(2);
+        List<CompletableFuture<Long>> reads = List.of(readWhileOtherReads(bothLoaded), readWhileOtherReads(bothLoaded));
+
+        for (CompletableFuture<Long> read : reads) {
+            assertEquals(3L, read.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(0L, revision());
+    }
+
+    @Test
+    void modifyingCommandShouldBumpTheRevision() {
+        manager.withinCommand(() -> {
+            GameState state = manager.get(GAME_ID).orElseThrow();
+            state.setVersion(state.getVersion() + 1);
+            return null;
+        });
+
+        assertEquals(1L, revision());
+        assertEquals(4L, manager.get(GAME_ID).orElseThrow().getVersion());
+    }
+
+    private CompletableFuture<Long> readWhileOtherReads(CyclicBarrier bothLoaded) {
+        return CompletableFuture.supplyAsync(() -> manager.withinCommand(() -> {
+            long version = manager.get(GAME_ID).orElseThrow().getVersion();
+            try {
+                // Les deux commandes ont lu la même révision avant que l'une d'elles se termine
+                bothLoaded.await(10, TimeUnit.SECONDS);
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+            return version;
+        }));
+    }
+
+    private long revision() {
+        return jdbcTemplate.queryForObject("select revision from etatPartie where id_partie = ?", Long.class, GAME_ID);
+    }
+
+    private static GameState newGame() {
+        return GameState.builder()
+                .partieId(GAME_ID)
+                .firstPlayerId(10L)
+                .secondPlayerId(20L)
+                .status(RuntimeGameStatus.IN_PROGRESS)
+                .version(3L)
+                .rngSeed(42L)
+                .rngState(42L)
+                .sheets(List.of(
+                        ColonneScore.builder().id(100L).idPartie(GAME_ID).idJoueur(10L).build(),
+                        ColonneScore.builder().id(101L).idPartie(GAME_ID).idJoueur(20L).build()))
+                .moveLog(new MoveLog())
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.jee.examen.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "YWJjZGVmZ2hpamtsbW5vcHFyc3R1dnd4eXoxMjM0NTY=";
+    private static final String OTHER_SECRET = "enl4d3Z1dHNycXBvbm1sa2ppaGdmZWRjYmE2NTQzMjE=";
+
+    @Test
+    void validTokenShouldBeVerified() {
+        JwtService jwtService = jwtService(SECRET, 60_000L, 100);
+
+        JwtService.VerifiedToken verified = jwtService.verify(jwtService.generateToken("alice", 42L)).orElseThrow();
+
+        assertEquals("alice", verified.getSubject());
+        assertEquals(42L, verified.getPlayerId());
+    }
+
+    @Test
+    void expiredTokenShouldBeRejected() {
+        JwtService issuer = jwtService(SECRET, -1_000L, 100);
+
+        assertTrue(issuer.verify(issuer.generateToken("alice", 42L)).isEmpty());
+    }
+
+    @Test
+    void cachedTokenShouldBeRejectedOnceExpired() throws InterruptedException {
+        // Expiration à la seconde dans le token : valide encore 0,5 s au moins
+        JwtService jwtService = jwtService(SECRET, 1_500L, 100);
+        String token = jwtService.generateToken("alice", 42L);
+        assertTrue(jwtService.verify(token).isPresent());
+
+        Thread.sleep(1_600);
+
+        assertTrue(jwtService.verify(token).isEmpty());
+    }
+
+    @Test
+    void tamperedPayloadShouldBeRejected() {
+        JwtService jwtService = jwtService(SECRET, 60_000L, 100);
+        String token = jwtService.generateToken("alice", 42L);
+        assertTrue(jwtService.verify(token).isPresent());
+        String[] parts = token.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+        String forged = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.replace("alice", "admin").getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(jwtService.verify(parts[0] + "." + forged + "." + parts[2]).isEmpty());
+    }
+
+    @Test
+    void tamperedSignatureShouldBeRejected() {
+        JwtService jwtService = jwtService(SECRET, 60_000L, 0);
+        String token = jwtService.generateToken("alice", 42L);
+        // Pas le dernier caractère : ses bits de bourrage base64 ne changent pas forcément la signature
+        int index = token.length() - 10;
+        char replaced = token.charAt(index) == 'A' ? 'B' : 'A';
+
+        String tampered = token.substring(0, index) + replaced + token.substring(index + 1);
+
+        assertTrue(jwtService.verify(tampered).isEmpty());
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyShouldBeRejected() {
+        JwtService other = jwtService(OTHER_SECRET, 60_000L, 100);
+        JwtService jwtService = jwtService(SECRET, 60_000L, 100);
+
+        assertTrue(jwtService.verify(other.generateToken("alice", 42L)).isEmpty());
+    }
+
+    @Test
+    void malformedTokenShouldBeRejected() {
+        JwtService jwtService = jwtService(SECRET, 60_000L, 100);
+
+        assertTrue(jwtService.verify("pas.un.jwt").isEmpty());
+        assertTrue(jwtService.verify("").isEmpty());
+    }
+
+    private static JwtService jwtService(String secret, long expirationMs, int cacheSize) {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", secret);
+        ReflectionTestUtils.setField(jwtService, "expirationMs", expirationMs);
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheMaxSize", cacheSize);
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheTtl", Duration.ofMinutes(5));
+        jwtService.init();
+        return jwtService;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.runtime.LobbyEntry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class LobbyServiceTest {
+
+    private final ClusterRouter clusterRouter = mock(ClusterRouter.class);
+    private final InMemoryLobbyQueue queue = new InMemoryLobbyQueue();
+    private final LobbyService lobbyService = new LobbyService(clusterRouter, mock(BotService.class), queue,
+            mock(RatingService.class), 0, 100, 25, 600);
+
+    @Test
+    void windowShouldWidenWithWaitingTimeUpToTheMaximum() {
+        LobbyEntry entry = LobbyEntry.builder().readyAt(10_000L).build();
+
+        assertEquals(100, lobbyService.eloWindow(entry, 10_000L));
+        assertEquals(100, lobbyService.eloWindow(entry, 10_999L));
+        assertEquals(150, lobbyService.eloWindow(entry, 12_000L));
+        assertEquals(600, lobbyService.eloWindow(entry, 30_000L));
+        assertEquals(600, lobbyService.eloWindow(entry, 600_000L));
+    }
+
+    @Test
+    void distantPlayersShouldNotBeMatchedRightAway() {
+        long now = System.currentTimeMillis();
+        queue.join(1L, 1200, now, now + 60_000L);
+        queue.join(2L, 1500, now, now + 60_000L);
+
+        lobbyService.matchWaitingPlayers();
+
+        verify(clusterRouter, never()).createGame(anyLong(), anyLong());
+        assertNotNull(queue.find(1L));
+        assertNotNull(queue.find(2L));
+    }
+
+    @Test
+    void distantPlayersShouldBeMatchedOnceTheWindowHasWidened() {
+        long now = System.currentTimeMillis();
+        // 10 s d'attente : fenêtre de 100 + 10 * 25 = 350 points
+        queue.join(1L, 1200, now - 10_000L, now + 60_000L);
+        queue.join(2L, 1500, now, now + 60_000L);
+        when(clusterRouter.createGame(1L, 2L)).thenReturn(42L);
+
+        lobbyService.matchWaitingPlayers();
+
+        assertEquals(42L, queue.takeMatch(1L));
+        assertEquals(42L, queue.takeMatch(2L));
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.jee.examen.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RatingServiceTest {
+
+    private final JoueurCache joueurCache = mock(JoueurCache.class);
+    private JdbcTemplate jdbcTemplate;
+    private RatingService ratingService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("create table joueur (id bigint primary key, pseudo varchar(50) not null, "
+                + "elo int default 1200 not null)");
+        jdbcTemplate.update("insert into joueur (id, pseudo, elo) values (1, 'alice', 1200), (2, 'bob', 1400)");
+        ratingService = new RatingService(jdbcTemplate, joueurCache, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void winBetweenEqualPlayersShouldBeWorthHalfOfK() {
+        assertEquals(16, RatingService.delta(1200, 1200, 1.0));
+        assertEquals(-16, RatingService.delta(1200, 1200, 0.0));
+    }
+
+    @Test
+    void drawBetweenEqualPlayersShouldChangeNothing() {
+        assertEquals(0, RatingService.delta(1500, 1500, 0.5));
+    }
+
+    @Test
+    void drawShouldMovePointsFromTheStrongerPlayer() {
+        // Attendu 0.76 pour le premier : 32 * (0.5 - 0.76)
+        assertEquals(-8, RatingService.delta(1400, 1200, 0.5));
+        assertEquals(8, RatingService.delta(1200, 1400, 0.5));
+    }
+
+    @Test
+    void upsetShouldBeWorthMoreThanExpectedWin() {
+        assertEquals(24, RatingService.delta(1200, 1400, 1.0));
+        assertEquals(8, RatingService.delta(1400, 1200, 1.0));
+    }
+
+    @Test
+    void deltaShouldNeverExceedK() {
+        assertEquals(RatingService.K_FACTOR, RatingService.delta(0, 3000, 1.0));
+        assertEquals(-RatingService.K_FACTOR, RatingService.delta(3000, 0, 0.0));
+    }
+
+    @Test
+    void recordedResultShouldMovePointsAndForgetCachedPlayers() {
+        assertEquals(1200, ratingService.eloOf(1L));
+
+        ratingService.recordResult(1L, 2L, 1.0);
+
+        assertEquals(1224, ratingService.eloOf(1L));
+        assertEquals(1376, ratingService.eloOf(2L));
+        verify(joueurCache).evict("alice");
+        verify(joueurCache).evict("bob");
+    }
+
+    @Test
+    void unknownPlayerShouldStartAtTheInitialRating() {
+        assertEquals(RatingService.INITIAL_ELO, ratingService.eloOf(99L));
+    }
+}
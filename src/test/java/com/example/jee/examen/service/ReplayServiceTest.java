@@ -0,0 +1,152 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.entity.ColonneScore;
+import com.example.jee.examen.entity.PartieReplay;
+import com.example.jee.examen.entity.Parties;
+import com.example.jee.examen.enums.Category;
+import com.example.jee.examen.enums.PartieStatus;
+import com.example.jee.examen.repository.ColonneScoreRepository;
+import com.example.jee.examen.repository.PartieReplayRepository;
+import com.example.jee.examen.repository.PartiesRepository;
+import com.example.jee.examen.runtime.GameState;
+import com.example.jee.examen.runtime.MoveLog;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ReplayServiceTest {
+
+    private static final long GAME_ID = 7L;
+    private static final long FIRST = 10L;
+    private static final long SECOND = 20L;
+
+    private final ScoreService scoreService = new ScoreService();
+    private final DiceService diceService = new DiceService();
+    private final ReplayService replayService = new ReplayService(mock(PartieReplayRepository.class),
+            mock(PartiesRepository.class), mock(ColonneScoreRepository.class), scoreService, diceService);
+
+    @Test
+    void replayedJournalShouldReproduceTheFinalSheetsAndTheWinner() {
+        for (long seed = 1; seed <= 50; seed++) {
+            GameState played = play(seed);
+            Long winner = scoreService.winnerId(played.getSheets());
+
+            Map<Long, ColonneScore> replayed = replayService.simulate(journal(played));
+
+            for (ColonneScore sheet : played.getSheets()) {
+                ColonneScore replayedSheet = replayed.get(sheet.getIdJoueur());
+                for (Category category : Category.values()) {
+                    assertEquals(scoreService.categoryScore(sheet, category),
+                            scoreService.categoryScore(replayedSheet, category), "graine " + seed + " " + category);
+                }
+                assertEquals(sheet.getScoreTotal(), replayedSheet.getScoreTotal(), "graine " + seed);
+            }
+            assertEquals(winner, scoreService.winnerId(replayed.values()), "graine " + seed);
+            assertTrue(replayService.verify(journal(played), finished(winner), played.getSheets()).matches());
+        }
+    }
+
+    @Test
+    void tamperedSheetShouldBeReported() {
+        GameState played = play(3L);
+        ColonneScore sheet = played.getSheets().get(0);
+        scoreService.setCategoryScore(sheet, Category.CHANCE, scoreService.categoryScore(sheet, Category.CHANCE) + 1);
+
+        ReplayService.Verification verification = replayService.verify(journal(played),
+                finished(scoreService.winnerId(played.getSheets())), played.getSheets());
+
+        assertFalse(verification.matches());
+        assertTrue(verification.mismatch().contains("CHANCE"), verification.mismatch());
+    }
+
+    @Test
+    void wrongWinnerShouldBeReported() {
+        GameState played = play(4L);
+        Long winner = scoreService.winnerId(played.getSheets());
+
+        ReplayService.Verification verification = replayService.verify(journal(played),
+                finished(winner == FIRST ? SECOND : FIRST), played.getSheets());
+
+        assertFalse(verification.matches());
+        assertTrue(verification.mismatch().startsWith("vainqueur"), verification.mismatch());
+    }
+
+    @Test
+    void fourthRollInATurnShouldBeRejected() {
+        MoveLog moves = new MoveLog();
+        for (int i = 0; i < 4; i++) {
+            moves.roll(0);
+        }
+        PartieReplay replay = PartieReplay.builder().idPartie(GAME_ID).rngSeed(1L)
+                .idJoueur1(FIRST).idJoueur2(SECOND).moves(moves.toByteArray()).build();
+
+        assertThrows(IllegalStateException.class, () -> replayService.simulate(replay));
+    }
+
+    /**
+     * Partie complète jouée comme {@link GameService} : coup journalisé avant le lancer, dés tirés par
+     * {@link DiceService}, scores par {@link ScoreService}, avec une pénalité de temps à autre
+     */
+    private GameState play(long seed) {
+        GameState state = GameState.builder()
+                .partieId(GAME_ID)
+                .firstPlayerId(FIRST)
+                .secondPlayerId(SECOND)
+                .rngSeed(seed)
+                .rngState(seed)
+                .sheets(List.of(
+                        ColonneScore.builder().id(100L).idPartie(GAME_ID).idJoueur(FIRST).build(),
+                        ColonneScore.builder().id(101L).idPartie(GAME_ID).idJoueur(SECOND).build()))
+                .moveLog(new MoveLog())
+                .build();
+        SplittableRandom choices = new SplittableRandom(seed);
+        while (state.getSheets().stream().noneMatch(scoreService::allCategoriesFilled)) {
+            long playerId = state.getCurrentPlayerId();
+            ColonneScore sheet = state.getSheets().get(state.getCurrentPlayerIndex());
+            if (choices.nextInt(10) == 0) {
+                scoreService.applyPenalty(sheet, state.extraYams(playerId));
+                state.getMoveLog().penalty();
+            } else {
+                int rolls = 1 + choices.nextInt(3);
+                for (int roll = 0; roll < rolls; roll++) {
+                    state.setLockMask(roll == 0 ? 0 : choices.nextInt(32));
+                    state.getMoveLog().roll(state.getLockMask());
+                    if (roll == 0) {
+                        diceService.rollAll(state);
+                    } else {
+                        diceService.rerollUnlocked(state);
+                    }
+                }
+                Category category = best(scoreService.possibleScores(state.getDice(), sheet));
+                state.setExtraYams(playerId, scoreService.applyTurnScore(sheet, category, state.getDice(),
+                        state.extraYams(playerId)));
+                state.getMoveLog().score(category);
+            }
+            state.startNextTurn(0, 30_000L);
+        }
+        return state;
+    }
+
+    private static Category best(Map<Category, Integer> possibleScores) {
+        return possibleScores.entrySet().stream().max(Map.Entry.comparingByValue()).orElseThrow().getKey();
+    }
+
+    private static PartieReplay journal(GameState state) {
+        return PartieReplay.builder()
+                .idPartie(state.getPartieId())
+                .rngSeed(state.getRngSeed())
+                .idJoueur1(state.getFirstPlayerId())
+                .idJoueur2(state.getSecondPlayerId())
+                .moves(state.getMoveLog().toByteArray())
+                .build();
+    }
+
+    private static Parties finished(Long winner) {
+        return Parties.builder().id(GAME_ID).status(PartieStatus.TERMINE).idVainqueur(winner).build();
+    }
+}
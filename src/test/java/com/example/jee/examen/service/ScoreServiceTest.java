@@ -5,6 +5,11 @@ import com.example.jee.examen.enums.Category;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ScoreServiceTest {
@@ -33,6 +38,48 @@ class ScoreServiceTest {
         assertEquals(50, scoreService.score(Category.YAM, new int[]{5, 5, 5, 5, 5}));
     }
 
+    @Test
+    void shouldScoreIndependentlyOfDiceOrder() {
+        int[] dice = {6, 2, 6, 2, 6};
+        int[] sorted = {2, 2, 6, 6, 6};
+        assertEquals(ScoreService.multisetIndex(sorted), ScoreService.multisetIndex(dice));
+        for (Category category : Category.values()) {
+            assertEquals(scoreService.score(category, sorted), scoreService.score(category, dice));
+        }
+        assertEquals(25, scoreService.score(Category.FULL, dice));
+        assertEquals(22, scoreService.score(Category.BRELAN, dice));
+        assertEquals(18, scoreService.score(Category.SIX, dice));
+    }
+
+    @Test
+    void shouldScoreUnrolledDiceAsZero() {
+        int[] dice = {0, 0, 0, 0, 0};
+        assertEquals(-1, ScoreService.multisetIndex(dice));
+        for (Category category : Category.values()) {
+            assertEquals(0, scoreService.score(category, dice));
+        }
+    }
+
+    @Test
+    void shouldTrackFilledCategoriesInMask() {
+        ColonneScore sheet = ColonneScore.builder().build();
+        assertEquals(Category.ONE, scoreService.firstUnfilledCategory(sheet));
+
+        scoreService.setCategoryScore(sheet, Category.ONE, 0);
+        scoreService.setCategoryScore(sheet, Category.TWO, 4);
+
+        assertTrue(scoreService.isFilled(sheet, Category.TWO));
+        assertFalse(scoreService.isFilled(sheet, Category.THREE));
+        assertEquals(Category.THREE, scoreService.firstUnfilledCategory(sheet));
+        assertFalse(scoreService.allCategoriesFilled(sheet));
+
+        for (Category category : Category.values()) {
+            scoreService.setCategoryScore(sheet, category, 0);
+        }
+        assertTrue(scoreService.allCategoriesFilled(sheet));
+        assertNull(scoreService.firstUnfilledCategory(sheet));
+    }
+
     @Test
     void shouldApplyNumbersBonusAt63() {
         ColonneScore sheet = ColonneScore.builder().build();
@@ -49,4 +96,68 @@ class ScoreServiceTest {
         assertEquals(35, sheet.getTotalNumbersBonus());
         assertEquals(98, sheet.getScoreTotal());
     }
+
+    @Test
+    void tiedGameShouldBeWonByTheLowestPlayerIdWhateverTheSheetOrder() {
+        ColonneScore low = ColonneScore.builder().idJoueur(3L).scoreTotal(120).build();
+        ColonneScore high = ColonneScore.builder().idJoueur(7L).scoreTotal(120).build();
+
+        assertEquals(3L, scoreService.winnerId(List.of(low, high)));
+        assertEquals(3L, scoreService.winnerId(List.of(high, low)));
+        assertEquals(7L, scoreService.winnerId(List.of(low,
+                ColonneScore.builder().idJoueur(7L).scoreTotal(121).build())));
+    }
+
+    @Test
+    void tableShouldMatchReferenceScoringForEveryRoll() {
+        Set<Integer> multisets = new HashSet<>();
+        for (int roll = 0; roll < 7776; roll++) {
+            int[] dice = new int[ScoreService.DICE_COUNT];
+            int packed = 0;
+            for (int i = 0, rest = roll; i < dice.length; i++, rest /= 6) {
+                dice[i] = rest % 6 + 1;
+                packed |= dice[i] << (3 * i);
+            }
+            int multiset = ScoreService.multisetIndex(dice);
+            assertEquals(multiset, ScoreService.multisetIndex(packed));
+            multisets.add(multiset);
+            for (Category category : Category.values()) {
+                assertEquals(referenceScore(category, dice), ScoreService.tableScore(multiset, category),
+                        category + " " + Arrays.toString(dice));
+            }
+        }
+        assertEquals(ScoreService.MULTISET_COUNT, multisets.size());
+        assertTrue(multisets.stream().allMatch(m -> m >= 0 && m < ScoreService.MULTISET_COUNT));
+    }
+
+    /** Règles écrites indépendamment de la table : dés triés, suites lues sur les faces distinctes */
+    private static int referenceScore(Category category, int[] dice) {
+        int[] sorted = dice.clone();
+        Arrays.sort(sorted);
+        int sum = Arrays.stream(sorted).sum();
+        int longestKind = 1;
+        for (int i = 1, run = 1; i < sorted.length; i++) {
+            run = sorted[i] == sorted[i - 1] ? run + 1 : 1;
+            longestKind = Math.max(longestKind, run);
+        }
+        StringBuilder faces = new StringBuilder();
+        Arrays.stream(sorted).distinct().forEach(faces::append);
+        String distinct = faces.toString();
+        boolean full = sorted[0] != sorted[4] && ((sorted[0] == sorted[2] && sorted[3] == sorted[4])
+                || (sorted[0] == sorted[1] && sorted[2] == sorted[4]));
+        return switch (category) {
+            case ONE, TWO, THREE, FOUR, FIVE, SIX -> {
+                int face = category.ordinal() + 1;
+                yield (int) Arrays.stream(sorted).filter(d -> d == face).count() * face;
+            }
+            case BRELAN -> longestKind >= 3 ? sum : 0;
+            case CARRE -> longestKind >= 4 ? sum : 0;
+            case FULL -> full ? 25 : 0;
+            case PETITE_SUITE -> distinct.contains("1234") || distinct.contains("2345")
+                    || distinct.contains("3456") ? 30 : 0;
+            case GRANDE_SUITE -> distinct.equals("12345") || distinct.equals("23456") ? 40 : 0;
+            case YAM -> longestKind == 5 ? 50 : 0;
+            case CHANCE -> sum;
+        };
+    }
 }
@@ -0,0 +1,82 @@
+package com.example.jee.examen.service;
+
+import com.example.jee.examen.entity.ColonneScore;
+import com.example.jee.examen.enums.Category;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoreSheetWriterTest {
+
+    private final ScoreService scoreService = new ScoreService();
+    private JdbcTemplate jdbcTemplate;
+    private ScoreSheetWriter writer;
+    private ColonneScore sheet;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("""
+                create table colonneScore (id bigint primary key, id_partie bigint not null, id_joueur bigint not null,
+                    score_1 int, score_2 int, score_3 int, score_4 int, score_5 int, score_6 int,
+                    total_numbers int not null, total_numbers_bonus int not null,
+                    score_brelan int, score_carre int, score_full int, score_petite_suite int,
+                    score_grande_suite int, score_yam int, score_chance int,
+                    score_total int not null, filled_mask int default 0 not null)
+                """);
+        jdbcTemplate.update("insert into colonneScore (id, id_partie, id_joueur, total_numbers, total_numbers_bonus, "
+                + "score_total, filled_mask) values (1, 1, 10, 0, 0, 0, 0)");
+        writer = new ScoreSheetWriter(jdbcTemplate);
+        sheet = ColonneScore.builder().id(1L).idPartie(1L).idJoueur(10L).build();
+    }
+
+    @Test
+    void delayedFlushAfterGameEndShouldNotChangeTheFinalRow() {
+        fill(Category.ONE, 3);
+        writer.markDirty(sheet);
+        fill(Category.CHANCE, 22);
+        writer.markDirty(sheet);
+        fill(Category.SIX, 24);
+        writer.flushNow(List.of(sheet));
+        Map<String, Object> finalRow = row();
+
+        // Marquée à nouveau par une commande en retard, écrite après la fin de partie
+        writer.markDirty(ColonneScore.builder().id(1L).idPartie(1L).idJoueur(10L).score1(3).scoreTotal(3)
+                .filledMask(1 << Category.ONE.ordinal()).build());
+        writer.flush();
+
+        assertEquals(finalRow, row());
+        assertEquals(49, finalRow.get("SCORE_TOTAL"));
+    }
+
+    @Test
+    void flushShouldWriteTheValuesSeenWhenTheSheetWasMarked() {
+        fill(Category.ONE, 3);
+        writer.markDirty(sheet);
+        // La partie continue sans re-marquer la feuille avant le passage de l'écriture différée
+        fill(Category.CHANCE, 22);
+        writer.flush();
+
+        Map<String, Object> row = row();
+        assertEquals(3, row.get("SCORE_TOTAL"));
+        assertNull(row.get("SCORE_CHANCE"));
+        assertEquals(1 << Category.ONE.ordinal(), row.get("FILLED_MASK"));
+    }
+
+    private void fill(Category category, int value) {
+        scoreService.setCategoryScore(sheet, category, value);
+        scoreService.recomputeTotals(sheet, 0);
+    }
+
+    private Map<String, Object> row() {
+        return jdbcTemplate.queryForMap("select * from colonneScore where id = 1");
+    }
+}